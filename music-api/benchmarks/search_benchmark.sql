@@ -0,0 +1,100 @@
+-- ============================================
+-- Benchmark da busca por título/nome: LIKE sem índice x pg_trgm
+--
+-- Uso (contra o postgres do docker-compose):
+--   psql -h localhost -U music -d musicdb -f benchmarks/search_benchmark.sql
+--
+-- Cria um schema "bench" isolado com dados sintéticos; não toca nas tabelas da aplicação.
+-- Ajuste :rows para variar o volume.
+-- ============================================
+
+\set rows 1000000
+\set term '''a1b2'''
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+
+CREATE TABLE bench.album (
+    id BIGSERIAL PRIMARY KEY,
+    title VARCHAR(200) NOT NULL,
+    release_year INTEGER,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+CREATE TABLE bench.artist (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(200) NOT NULL UNIQUE,
+    type VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+INSERT INTO bench.album (title, release_year)
+SELECT 'Album ' || md5(g::text) || ' ' ||
+       (ARRAY['Live', 'Remaster', 'Deluxe', 'Greatest Hits', 'Acoustic'])[1 + g % 5],
+       1950 + g % 75
+FROM generate_series(1, :rows) g;
+
+INSERT INTO bench.artist (name, type)
+SELECT 'Artist ' || md5((g * 7)::text), CASE WHEN g % 2 = 0 THEN 'SOLO' ELSE 'BANDA' END
+FROM generate_series(1, :rows / 10) g;
+
+ANALYZE bench.album;
+ANALYZE bench.artist;
+
+-- --------------------------------------------
+-- 1) Consultas antigas, sem índice (seq scan)
+-- --------------------------------------------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.id FROM bench.album a
+WHERE LOWER(a.title) LIKE LOWER('%' || :term || '%')
+ORDER BY a.title ASC, a.id ASC
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(a.id) FROM bench.album a
+WHERE LOWER(a.title) LIKE LOWER('%' || :term || '%');
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.id FROM bench.artist a
+WHERE LOWER(a.name) LIKE LOWER('%' || :term || '%')
+ORDER BY a.name ASC
+LIMIT 20;
+
+-- --------------------------------------------
+-- 2) Mesmos índices da migration V6
+-- --------------------------------------------
+CREATE INDEX idx_bench_album_title_trgm ON bench.album USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX idx_bench_artist_name_trgm ON bench.artist USING gin (LOWER(name) gin_trgm_ops);
+ANALYZE bench.album;
+ANALYZE bench.artist;
+
+-- Consultas antigas passam a usar o índice (bitmap index scan)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.id FROM bench.album a
+WHERE LOWER(a.title) LIKE LOWER('%' || :term || '%')
+ORDER BY a.title ASC, a.id ASC
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(a.id) FROM bench.album a
+WHERE LOWER(a.title) LIKE LOWER('%' || :term || '%');
+
+-- Novas consultas ranqueadas (/api/v1/search)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.id, a.title, word_similarity(LOWER(:term), LOWER(a.title)) AS score
+FROM bench.album a
+WHERE LOWER(a.title) LIKE '%' || LOWER(:term) || '%' OR LOWER(:term) <% LOWER(a.title)
+ORDER BY score DESC, a.title ASC, a.id ASC
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT a.id, a.name, word_similarity(LOWER(:term), LOWER(a.name)) AS score
+FROM bench.artist a
+WHERE LOWER(a.name) LIKE '%' || LOWER(:term) || '%' OR LOWER(:term) <% LOWER(a.name)
+ORDER BY score DESC, a.name ASC, a.id ASC
+LIMIT 20;
+
+DROP SCHEMA bench CASCADE;
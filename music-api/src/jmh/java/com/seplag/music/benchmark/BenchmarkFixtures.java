@@ -0,0 +1,140 @@
+package com.seplag.music.benchmark;
+
+import com.seplag.music.domain.dto.AlbumCoverMapper;
+import com.seplag.music.domain.dto.AlbumMapper;
+import com.seplag.music.domain.dto.ArtistMapper;
+import com.seplag.music.domain.model.Album;
+import com.seplag.music.domain.model.AlbumCover;
+import com.seplag.music.domain.model.Artist;
+import com.seplag.music.domain.model.ArtistType;
+import com.seplag.music.config.SigV4Presigner;
+import com.seplag.music.security.JwtProvider;
+import com.seplag.music.service.StorageBootstrap;
+import com.seplag.music.service.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.MinioClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dados e objetos dos benchmarks, montados sem Spring e de forma determinística
+ * (semente fixa, IDs e datas fixos) para que execuções diferentes sejam comparáveis.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 57913L;
+    static final String JWT_SECRET = "benchmark-secret-key-with-at-least-32-characters-for-hmac";
+    static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private BenchmarkFixtures() {
+    }
+
+    static AlbumMapper albumMapper() {
+        return new AlbumMapper(new ArtistMapper(), new AlbumCoverMapper());
+    }
+
+    /**
+     * Artistas compartilhados entre os álbuns, como no catálogo real.
+     */
+    static List<Artist> artists(int count) {
+        Random random = new Random(SEED);
+        List<Artist> artists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            artists.add(Artist.builder()
+                    .id((long) i + 1)
+                    .name("Artista " + (i + 1))
+                    .type(random.nextBoolean() ? ArtistType.SOLO : ArtistType.BANDA)
+                    .createdAt(CREATED_AT.plusMinutes(i))
+                    .albums(new LinkedHashSet<>())
+                    .build());
+        }
+        return artists;
+    }
+
+    static List<Album> albums(int count, int artistsPerAlbum, int coversPerAlbum) {
+        Random random = new Random(SEED);
+        List<Artist> pool = artists(Math.max(artistsPerAlbum, count / 2));
+        List<Album> albums = new ArrayList<>(count);
+        long coverId = 1;
+
+        for (int i = 0; i < count; i++) {
+            Album album = Album.builder()
+                    .id((long) i + 1)
+                    .title("Álbum " + (i + 1))
+                    .releaseYear(1960 + random.nextInt(65))
+                    .createdAt(CREATED_AT.plusMinutes(i))
+                    .build();
+
+            Set<Artist> artists = new LinkedHashSet<>();
+            while (artists.size() < artistsPerAlbum) {
+                artists.add(pool.get(random.nextInt(pool.size())));
+            }
+            album.setArtists(artists);
+
+            Set<AlbumCover> covers = new LinkedHashSet<>();
+            for (int c = 0; c < coversPerAlbum; c++) {
+                covers.add(AlbumCover.builder()
+                        .id(coverId++)
+                        .album(album)
+                        .fileName("capa-" + c + ".jpg")
+                        .objectName(objectName(i + 1, c))
+                        .contentType("image/jpeg")
+                        .fileSize(100_000L + random.nextInt(900_000))
+                        .isPrimary(c == 0)
+                        .createdAt(CREATED_AT)
+                        .build());
+            }
+            album.setCovers(covers);
+            albums.add(album);
+        }
+        return albums;
+    }
+
+    static String objectName(long albumId, int index) {
+        return String.format("albums/%d/%08d-0000-4000-8000-%012d.jpg", albumId, index, albumId);
+    }
+
+    static JwtProvider jwtProvider(int claimsCacheMaxSize) {
+        JwtProvider provider = new JwtProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", claimsCacheMaxSize);
+        ReflectionTestUtils.setField(provider, "invalidLogInterval", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    /**
+     * StorageService com MinioClient local; a região fixa evita a consulta de região ao servidor,
+     * então a assinatura de URLs é só CPU (não precisa de MinIO rodando).
+     * localSigner: assina com o SigV4Presigner em vez do SDK.
+     */
+    static StorageService storageService(int presignedCacheMaxSize, boolean localSigner) {
+        MinioClient client = MinioClient.builder()
+                .endpoint("http://localhost:9000")
+                .region("us-east-1")
+                .credentials("benchmark", "benchmark-secret")
+                .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StorageBootstrap bootstrap = new StorageBootstrap(client, registry, "albums", "unchanged", Duration.ZERO, Duration.ZERO);
+        Optional<SigV4Presigner> presigner = localSigner
+                ? Optional.of(new SigV4Presigner("http://localhost:9000", "benchmark", "benchmark-secret", "us-east-1"))
+                : Optional.empty();
+        StorageService storage = new StorageService(client, registry, bootstrap, presigner, presignedCacheMaxSize, 0.5);
+        ReflectionTestUtils.setField(storage, "bucketName", "albums");
+        ReflectionTestUtils.setField(storage, "minioUrl", "http://localhost:9000");
+        ReflectionTestUtils.setField(storage, "uploadPartSize", DataSize.ofMegabytes(5));
+        return storage;
+    }
+}
@@ -0,0 +1,125 @@
+package com.seplag.music.benchmark;
+
+import com.seplag.music.security.JwtAuthenticationFilter;
+import com.seplag.music.security.JwtProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do JwtAuthenticationFilter em uma requisição autenticada:
+ * legacy (três parses, chave e parser recriados a cada chamada) x parse único x parse único com cache de claims.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private OncePerRequestFilter legacyFilter;
+    private JwtAuthenticationFilter singleParseFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProvider uncached = BenchmarkFixtures.jwtProvider(0);
+        JwtProvider cached = BenchmarkFixtures.jwtProvider(10_000);
+
+        token = cached.generateAccessToken("benchmark", "USER");
+        legacyFilter = new LegacyFilter();
+        singleParseFilter = new JwtAuthenticationFilter(uncached);
+        cachedFilter = new JwtAuthenticationFilter(cached);
+    }
+
+    @Benchmark
+    public Object legacyThreeParses() throws Exception {
+        return run(legacyFilter);
+    }
+
+    @Benchmark
+    public Object singleParse() throws Exception {
+        return run(singleParseFilter);
+    }
+
+    @Benchmark
+    public Object singleParseCached() throws Exception {
+        return run(cachedFilter);
+    }
+
+    private Object run(OncePerRequestFilter filter) throws Exception {
+        // Requisição nova a cada chamada: OncePerRequestFilter marca a requisição como já filtrada
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/albums");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Cópia do caminho anterior: validateToken + getUsernameFromToken + getRoleFromToken,
+     * cada um decodificando a chave e montando um parser novo.
+     */
+    static class LegacyFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            String header = request.getHeader("Authorization");
+            String jwt = header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+
+            if (jwt != null && validate(jwt)) {
+                String username = parse(jwt).getSubject();
+                Object role = parse(jwt).get("role");
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        username, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+            }
+            chain.doFilter(request, response);
+        }
+
+        private boolean validate(String jwt) {
+            try {
+                parse(jwt);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private Claims parse(String jwt) {
+            return Jwts.parser().verifyWith(key()).build().parseSignedClaims(jwt).getPayload();
+        }
+
+        private SecretKey key() {
+            try {
+                return Keys.hmacShaKeyFor(Base64.getDecoder().decode(BenchmarkFixtures.JWT_SECRET));
+            } catch (IllegalArgumentException ex) {
+                return Keys.hmacShaKeyFor(BenchmarkFixtures.JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
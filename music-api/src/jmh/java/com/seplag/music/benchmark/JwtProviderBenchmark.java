@@ -0,0 +1,50 @@
+package com.seplag.music.benchmark;
+
+import com.seplag.music.security.JwtProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração e validação de tokens no JwtProvider (sem e com cache de claims).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtProviderBenchmark {
+
+    private JwtProvider uncached;
+    private JwtProvider cached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        uncached = BenchmarkFixtures.jwtProvider(0);
+        cached = BenchmarkFixtures.jwtProvider(10_000);
+        token = uncached.generateAccessToken("benchmark", "USER");
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return uncached.generateAccessToken("benchmark", "USER");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<JwtProvider.TokenClaims> authenticate() {
+        return uncached.authenticate(token);
+    }
+
+    @Benchmark
+    public Optional<JwtProvider.TokenClaims> authenticateCached() {
+        return cached.authenticate(token);
+    }
+}
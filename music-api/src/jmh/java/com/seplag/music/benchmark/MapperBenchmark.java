@@ -0,0 +1,63 @@
+package com.seplag.music.benchmark;
+
+import com.seplag.music.domain.dto.AlbumDTO;
+import com.seplag.music.domain.dto.AlbumMapper;
+import com.seplag.music.domain.dto.ArtistDTO;
+import com.seplag.music.domain.dto.ArtistMapper;
+import com.seplag.music.domain.model.Album;
+import com.seplag.music.domain.model.Artist;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de AlbumMapper.toDTO / ArtistMapper.toDTO sobre um grafo grande (página inteira de álbuns).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"100", "1000"})
+    public int albums;
+
+    @Param({"2", "20"})
+    public int artistsPerAlbum;
+
+    @Param({"3"})
+    public int coversPerAlbum;
+
+    private AlbumMapper albumMapper;
+    private ArtistMapper artistMapper;
+    private List<Album> albumGraph;
+    private List<Artist> artists;
+
+    @Setup
+    public void setup() {
+        albumMapper = BenchmarkFixtures.albumMapper();
+        artistMapper = new ArtistMapper();
+        albumGraph = BenchmarkFixtures.albums(albums, artistsPerAlbum, coversPerAlbum);
+        artists = BenchmarkFixtures.artists(albums * artistsPerAlbum);
+    }
+
+    @Benchmark
+    public void albumToDTO(Blackhole bh) {
+        for (Album album : albumGraph) {
+            AlbumDTO dto = albumMapper.toDTO(album);
+            bh.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public void artistToDTO(Blackhole bh) {
+        for (Artist artist : artists) {
+            ArtistDTO dto = artistMapper.toDTO(artist);
+            bh.consume(dto);
+        }
+    }
+}
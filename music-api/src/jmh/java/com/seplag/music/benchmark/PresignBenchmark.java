@@ -0,0 +1,59 @@
+package com.seplag.music.benchmark;
+
+import com.seplag.music.service.StorageService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StorageService.getPresignedUrl: assinatura SigV4 a cada chamada (cache desligado), pelo SigV4Presigner
+ * e pelo SDK, x reaproveitamento pelo cache de URLs presigned. Só CPU, sem rede.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PresignBenchmark {
+
+    private static final int OBJECTS = 1024;
+
+    private StorageService uncached;
+    private StorageService uncachedSdk;
+    private StorageService cached;
+    private String[] objectNames;
+    private int next;
+
+    @Setup
+    public void setup() {
+        uncached = BenchmarkFixtures.storageService(0, true);
+        uncachedSdk = BenchmarkFixtures.storageService(0, false);
+        cached = BenchmarkFixtures.storageService(10_000, true);
+        objectNames = new String[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            objectNames[i] = BenchmarkFixtures.objectName(i + 1, 0);
+            cached.getPresignedUrl(objectNames[i]);
+        }
+    }
+
+    private String nextObject() {
+        next = (next + 1) & (OBJECTS - 1);
+        return objectNames[next];
+    }
+
+    @Benchmark
+    public String presign() {
+        return uncached.getPresignedUrl(nextObject());
+    }
+
+    @Benchmark
+    public String presignSdk() {
+        return uncachedSdk.getPresignedUrl(nextObject());
+    }
+
+    @Benchmark
+    public String presignCached() {
+        return cached.getPresignedUrl(nextObject());
+    }
+}
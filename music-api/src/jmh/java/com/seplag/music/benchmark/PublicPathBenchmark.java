@@ -0,0 +1,38 @@
+package com.seplag.music.benchmark;
+
+import com.seplag.music.security.JwtAuthenticationFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classificação de caminhos públicos do JwtAuthenticationFilter, executada em toda requisição.
+ * Mistura fixa de caminhos protegidos (maioria) e públicos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PublicPathBenchmark {
+
+    private static final String[] PATHS = {
+            "/api/v1/albums",
+            "/api/v1/albums/42",
+            "/api/v1/albums/42/covers",
+            "/api/v1/artists",
+            "/api/v1/search",
+            "/api/v1/regionais",
+            "/api/v1/auth/login",
+            "/swagger-ui/index.html"
+    };
+
+    private int next;
+
+    @Benchmark
+    public boolean isPublicEndpoint() {
+        next = (next + 1) & (PATHS.length - 1);
+        return JwtAuthenticationFilter.isPublicEndpoint(PATHS[next]);
+    }
+}
@@ -0,0 +1,324 @@
+package com.seplag.music.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Operações HTTP do teste de carga contra a API em execução.
+ */
+class ApiWorkload {
+
+    private static final String[] SEARCH_TERMS = {"rock", "live", "album", "the", "amor", "noite", "carga", "vol"};
+    private static final int PAGE_SIZE = 20;
+
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final byte[] coverImage;
+    private final AtomicLong minAlbumId = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxAlbumId = new AtomicLong();
+
+    /** caminhos /covers/{id}/image das capas enviadas, com o último ETag recebido */
+    private final List<String> coverImages = new CopyOnWriteArrayList<>();
+    private final Map<String, String> coverEtags = new ConcurrentHashMap<>();
+
+    /** título → instante do POST, para medir a chegada da notificação no /topic/albums */
+    final Map<String, Long> pendingNotifications = new ConcurrentHashMap<>();
+
+    private String token;
+
+    ApiWorkload(String baseUrl) throws IOException {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.coverImage = sampleCover();
+    }
+
+    /**
+     * Registra um usuário de carga e guarda o access token.
+     */
+    void authenticate() throws Exception {
+        String username = "loadtest-" + UUID.randomUUID().toString().substring(0, 8);
+        String body = mapper.writeValueAsString(Map.of(
+                "username", username, "email", username + "@loadtest.local", "password", "loadtest-123"));
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/v1/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Falha ao registrar usuário de carga: " + response.statusCode() + " " + response.body());
+        }
+        token = mapper.readTree(response.body()).path("accessToken").asText();
+    }
+
+    /**
+     * Carga inicial via importação em lote (CSV), para as leituras terem volume.
+     */
+    void seed(int albums) throws Exception {
+        if (albums > 0) {
+            StringBuilder csv = new StringBuilder("title,releaseYear,artists\n");
+            Random random = new Random(57913L);
+            for (int i = 1; i <= albums; i++) {
+                csv.append(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]).append(" seed ").append(i).append(',')
+                        .append(1960 + random.nextInt(65)).append(',')
+                        .append("Artista Carga ").append(random.nextInt(Math.max(1, albums / 5))).append('\n');
+            }
+
+            String boundary = "loadtest-" + UUID.randomUUID();
+            String multipart = "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"seed.csv\"\r\n"
+                    + "Content-Type: text/csv\r\n\r\n"
+                    + csv + "\r\n--" + boundary + "--\r\n";
+            HttpResponse<String> response = send(authorized("/api/v1/albums/import")
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofString(multipart)));
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Falha na carga inicial: " + response.statusCode() + " " + response.body());
+            }
+        }
+
+        // Faixa de IDs existentes para detail/upload
+        HttpResponse<String> page = send(HttpRequest.newBuilder(uri("/api/v1/albums?page=0&size=1000")).GET());
+        for (JsonNode album : mapper.readTree(page.body()).path("content")) {
+            trackAlbumId(album.path("id").asLong());
+        }
+        if (maxAlbumId.get() == 0) {
+            throw new IllegalStateException("Nenhum álbum disponível após a carga inicial");
+        }
+    }
+
+    boolean run(String operation) throws Exception {
+        return switch (operation) {
+            case "list" -> list();
+            case "detail" -> detail();
+            case "search" -> search();
+            case "create" -> create();
+            case "upload" -> upload();
+            case "direct" -> direct();
+            case "image" -> image();
+            default -> throw new IllegalArgumentException("Operação desconhecida no loadtest.mix: " + operation);
+        };
+    }
+
+    private boolean list() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(Math.max(1, (int) (albumCount() / PAGE_SIZE)));
+        return ok(send(HttpRequest.newBuilder(uri("/api/v1/albums?page=" + page + "&size=" + PAGE_SIZE)).GET()));
+    }
+
+    private boolean detail() throws Exception {
+        return ok(send(HttpRequest.newBuilder(uri("/api/v1/albums/" + randomAlbumId())).GET()));
+    }
+
+    private boolean search() throws Exception {
+        String term = SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)];
+        return ok(send(HttpRequest.newBuilder(uri("/api/v1/search?q=" + URLEncoder.encode(term, StandardCharsets.UTF_8))).GET()));
+    }
+
+    private boolean create() throws Exception {
+        String title = "carga " + UUID.randomUUID();
+        pendingNotifications.put(title, System.nanoTime());
+        String body = mapper.writeValueAsString(Map.of("title", title, "releaseYear", 2024));
+        HttpResponse<String> response = send(authorized("/api/v1/albums")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (!ok(response)) {
+            pendingNotifications.remove(title);
+            return false;
+        }
+        trackAlbumId(mapper.readTree(response.body()).path("id").asLong());
+        return true;
+    }
+
+    private boolean upload() throws Exception {
+        long albumId = randomAlbumId();
+        HttpResponse<String> response = send(authorized("/api/v1/albums/" + albumId + "/covers/stream?fileName=carga.png")
+                .header("Content-Type", "image/png")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(coverImage)));
+        if (!ok(response)) {
+            return false;
+        }
+        coverImages.add(imagePath(albumId, mapper.readTree(response.body()).path("id").asLong()));
+        return true;
+    }
+
+    /**
+     * Upload direto: pede a URL presigned, envia os bytes ao storage (stub S3) e confirma na API.
+     */
+    private boolean direct() throws Exception {
+        long albumId = randomAlbumId();
+        JsonNode ticket = uploadTicket(albumId);
+        if (ticket == null || putToStorage(ticket, coverImage) / 100 != 2) {
+            return false;
+        }
+        HttpResponse<String> response = confirm(albumId, ticket.path("objectName").asText());
+        if (!ok(response)) {
+            return false;
+        }
+        coverImages.add(imagePath(albumId, mapper.readTree(response.body()).path("id").asLong()));
+        return true;
+    }
+
+    /**
+     * Confere uma vez, antes da carga, os casos do upload direto contra o stub S3; uma falha interrompe o teste:
+     * confirmação, objectName de outro álbum, segunda confirmação, PUT na mesma URL depois de confirmar
+     * (a capa não muda) e objeto que não é imagem (recusado e removido do storage).
+     */
+    void verifyDirectUpload() throws Exception {
+        if (albumCount() < 2 && !create()) {
+            throw new IllegalStateException("Upload direto: falha ao criar o segundo álbum");
+        }
+        long albumId = minAlbumId.get();
+        long otherAlbumId = maxAlbumId.get();
+
+        JsonNode ticket = uploadTicket(albumId);
+        check(ticket != null, "URL de upload não gerada");
+        String objectName = ticket.path("objectName").asText();
+        check(putToStorage(ticket, coverImage) == 200, "PUT na URL presigned recusado");
+
+        check(confirm(otherAlbumId, objectName).statusCode() == 400, "objectName de outro álbum aceito");
+        HttpResponse<String> confirmed = confirm(albumId, objectName);
+        check(confirmed.statusCode() == 201, "confirmação recusada: " + confirmed.statusCode() + " " + confirmed.body());
+        JsonNode cover = mapper.readTree(confirmed.body());
+        check(sha256(coverImage).equals(cover.path("checksum").asText()), "checksum da capa difere do conteúdo enviado");
+        check(confirm(albumId, objectName).statusCode() == 400, "segunda confirmação aceita");
+
+        // A URL ainda vale: um novo PUT não pode trocar a capa já confirmada
+        byte[] notImage = "isto não é uma imagem".getBytes(StandardCharsets.UTF_8);
+        check(putToStorage(ticket, notImage) == 200, "segundo PUT na URL presigned recusado");
+        HttpResponse<byte[]> image = http.send(HttpRequest.newBuilder(uri(imagePath(albumId, cover.path("id").asLong())))
+                .timeout(Duration.ofSeconds(30)).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+        check(ok(image) && Arrays.equals(coverImage, image.body()), "capa confirmada mudou após novo PUT");
+
+        HttpResponse<String> rejected = confirm(albumId, objectName);
+        check(rejected.statusCode() == 400 && rejected.body().contains("imagem"), "objeto que não é imagem aceito");
+        HttpResponse<String> removed = confirm(albumId, objectName);
+        check(removed.statusCode() == 400 && removed.body().contains("não encontrado"),
+                "objeto recusado continua no storage");
+    }
+
+    private JsonNode uploadTicket(long albumId) throws Exception {
+        String body = mapper.writeValueAsString(Map.of(
+                "fileName", "direto.png", "contentType", "image/png", "fileSize", coverImage.length));
+        HttpResponse<String> response = send(authorized("/api/v1/albums/" + albumId + "/covers/upload-url")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        return ok(response) ? mapper.readTree(response.body()) : null;
+    }
+
+    private int putToStorage(JsonNode ticket, byte[] content) throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(ticket.path("uploadUrl").asText()))
+                .header("Content-Type", ticket.path("contentType").asText())
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(content))).statusCode();
+    }
+
+    private HttpResponse<String> confirm(long albumId, String objectName) throws Exception {
+        String body = mapper.writeValueAsString(Map.of("objectName", objectName, "fileName", "direto.png"));
+        return send(authorized("/api/v1/albums/" + albumId + "/covers/confirm")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private static String imagePath(long albumId, long coverId) {
+        return "/api/v1/albums/" + albumId + "/covers/" + coverId + "/image";
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new IllegalStateException("Upload direto: " + failure);
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    /**
+     * Baixa a imagem de uma capa já enviada; metade das vezes revalida com o ETag recebido antes (304).
+     */
+    private boolean image() throws Exception {
+        if (coverImages.isEmpty()) {
+            return upload();
+        }
+        String path = coverImages.get(ThreadLocalRandom.current().nextInt(coverImages.size()));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+        String etag = coverEtags.get(path);
+        if (etag != null && ThreadLocalRandom.current().nextBoolean()) {
+            request.header("If-None-Match", etag);
+        }
+        HttpResponse<byte[]> response = http.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        response.headers().firstValue("ETag").ifPresent(value -> coverEtags.put(path, value));
+        return ok(response) || response.statusCode() == 304;
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private void trackAlbumId(long id) {
+        if (id > 0) {
+            minAlbumId.accumulateAndGet(id, Math::min);
+            maxAlbumId.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    private long albumCount() {
+        return maxAlbumId.get() - minAlbumId.get() + 1;
+    }
+
+    private long randomAlbumId() {
+        return ThreadLocalRandom.current().nextLong(minAlbumId.get(), maxAlbumId.get() + 1);
+    }
+
+    /**
+     * PNG 512x512 determinístico (~ centenas de KB), suficiente para exercitar upload e miniaturas.
+     */
+    private static byte[] sampleCover() throws IOException {
+        BufferedImage image = new BufferedImage(512, 512, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(57913L);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * 255 / 512) << 16 | (y * 255 / 512) << 8 | random.nextInt(64));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
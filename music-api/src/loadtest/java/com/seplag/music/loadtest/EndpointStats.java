@@ -0,0 +1,79 @@
+package com.seplag.music.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Histograma de latência (µs) e contagem de erros de uma operação.
+ */
+class EndpointStats {
+
+    private static final long MAX_LATENCY_US = TimeUnit.MINUTES.toMicros(5);
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_US, 3);
+    private final AtomicLong errors = new AtomicLong();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long startNanos, boolean success) {
+        long micros = Math.min(MAX_LATENCY_US, Math.max(1, (System.nanoTime() - startNanos) / 1_000));
+        histogram.recordValue(micros);
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void reset() {
+        histogram.reset();
+        errors.set(0);
+    }
+
+    long count() {
+        return histogram.getTotalCount();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    Map<String, Object> summary(double seconds) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", ms(histogram.getMean()));
+        latency.put("p50", ms(histogram.getValueAtPercentile(50)));
+        latency.put("p90", ms(histogram.getValueAtPercentile(90)));
+        latency.put("p99", ms(histogram.getValueAtPercentile(99)));
+        latency.put("p999", ms(histogram.getValueAtPercentile(99.9)));
+        latency.put("max", ms(histogram.getMaxValue()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count());
+        summary.put("errors", errors());
+        summary.put("throughputPerSec", Math.round(count() / seconds * 10) / 10.0);
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    /**
+     * Distribuição completa no formato .hgrm (valores em ms).
+     */
+    void writeDistribution(PrintStream out) {
+        histogram.outputPercentileDistribution(out, 1000.0);
+    }
+
+    private static double ms(double micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
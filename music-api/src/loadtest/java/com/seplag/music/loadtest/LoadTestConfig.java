@@ -0,0 +1,90 @@
+package com.seplag.music.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos de propriedades de sistema (-Dloadtest.*).
+ */
+record LoadTestConfig(int threads,
+                      Duration duration,
+                      Duration warmup,
+                      Map<String, Integer> mix,
+                      int seedAlbums,
+                      String report,
+                      List<String> threading,
+                      Duration s3Latency,
+                      List<String> appArgs,
+                      int carriers,
+                      String broker) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.threads", 16),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                parseMix(System.getProperty("loadtest.mix", "list:50,detail:25,search:5,create:10,upload:10")),
+                Integer.getInteger("loadtest.seed-albums", 500),
+                System.getProperty("loadtest.report", "target/loadtest-report.json"),
+                parseThreading(System.getProperty("loadtest.threading", "platform")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.s3-latency", "0ms")),
+                splitArgs(System.getProperty("loadtest.app-args", "")),
+                Integer.getInteger("loadtest.carriers", 0),
+                parseBroker(System.getProperty("loadtest.broker", "simple")));
+    }
+
+    /**
+     * "platform", "virtual" ou "both" (as duas em sequência, cada uma em um banco novo).
+     */
+    static List<String> parseThreading(String threading) {
+        return switch (threading.trim()) {
+            case "platform" -> List.of("platform");
+            case "virtual" -> List.of("virtual");
+            case "both" -> List.of("platform", "virtual");
+            default -> throw new IllegalArgumentException("loadtest.threading inválido: " + threading);
+        };
+    }
+
+    /**
+     * "simple" (broker em memória) ou "relay" (duas réplicas ligadas a um StompBrokerStub).
+     */
+    static String parseBroker(String broker) {
+        String mode = broker.trim();
+        if (!mode.equals("simple") && !mode.equals("relay")) {
+            throw new IllegalArgumentException("loadtest.broker inválido: " + broker);
+        }
+        return mode;
+    }
+
+    /**
+     * Argumentos extras para a aplicação, separados por espaço (ex.: "--app.concurrency.storage.permits=256").
+     */
+    static List<String> splitArgs(String args) {
+        return args.isBlank() ? List.of() : List.of(args.trim().split("\\s+"));
+    }
+
+    /**
+     * "list:50,detail:25" → {list=50, detail=25}
+     */
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix inválido: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix sem operações");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,352 @@
+package com.seplag.music.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.seplag.music.MusicApiApplication;
+import com.seplag.music.domain.dto.AlbumNotificationDTO;
+import com.seplag.music.domain.dto.ChangeBatchDTO;
+import com.seplag.music.service.ChangeNotificationService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga ponta a ponta sem Docker: sobe PostgreSQL embarcado, um stub S3 em processo
+ * e a aplicação (porta aleatória), e dispara uma mistura configurável de leituras, escritas e uploads.
+ * A latência de notificação do /ws (POST do álbum até a mensagem em /topic/albums) entra como "ws-notify";
+ * com -Dloadtest.broker=relay a assinatura fica numa segunda réplica e a mensagem passa pelo StompBrokerStub.
+ * Os lotes de /topic/changes são conferidos: sequence fora de ordem numa mesma source falha o teste.
+ * Com loadtest.threading=both a mesma carga roda com threads de plataforma e depois com virtual threads
+ * (cada modo em um banco novo) e o resumo compara os dois.
+ * <p>
+ * mvn -Ploadtest test-compile exec:exec@loadtest -Dloadtest.threads=32 -Dloadtest.duration=2m
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        log("Configuração: %s", config);
+        if (config.threading().contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads exigem Java 21 (rodando em " + Runtime.version()
+                    + "); use -Dloadtest.java=<jdk21>/bin/java");
+        }
+        if (config.carriers() > 0) {
+            // Cliente e aplicação dividem a JVM: em máquinas com poucos núcleos as threads do cliente
+            // disputam CPU com os poucos carriers das virtual threads (um por núcleo por padrão)
+            System.setProperty("jdk.virtualThreadScheduler.parallelism", String.valueOf(config.carriers()));
+        }
+
+        Map<String, LoadRun> results = new LinkedHashMap<>();
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+
+            for (String threading : config.threading()) {
+                // Banco e stub S3 novos por modo: o stub guarda os objetos em memória
+                String database = createDatabase(postgres, "loadtest_" + threading);
+                boolean relay = config.broker().equals("relay");
+                try (S3StubServer s3 = new S3StubServer(config.s3Latency()).start();
+                     StompBrokerStub broker = relay ? new StompBrokerStub().start() : null;
+                     ConfigurableApplicationContext app = startApplication(postgres, database, s3, broker, threading, config);
+                     // Modo relay: as notificações são assinadas numa segunda réplica, só alcançável via broker
+                     ConfigurableApplicationContext replica = relay
+                             ? startApplication(postgres, database, s3, broker, threading, config)
+                             : null) {
+                    log("Modo %s, broker %s", threading, config.broker());
+                    LoadRun result = runLoad(config, app, replica != null ? replica : app);
+                    String suffix = config.threading().size() > 1 ? "-" + threading : "";
+                    File reportFile = report(config, threading, result, s3, suffix);
+                    saveServerMetrics(app.getEnvironment().getProperty("local.server.port"),
+                            reportFile.getParentFile(), suffix);
+                    results.put(threading, result);
+                }
+            }
+        }
+
+        if (results.size() > 1) {
+            compare(results);
+        }
+    }
+
+    private static LoadRun runLoad(LoadTestConfig config, ConfigurableApplicationContext app,
+                                   ConfigurableApplicationContext notificationApp) throws Exception {
+        String port = app.getEnvironment().getProperty("local.server.port");
+        ApiWorkload workload = new ApiWorkload("http://localhost:" + port);
+        workload.authenticate();
+        workload.seed(config.seedAlbums());
+        log("Aplicação na porta %s, carga inicial concluída", port);
+        workload.verifyDirectUpload();
+        log("Upload direto (presigned PUT + confirmação) conferido contra o stub S3");
+
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        config.mix().keySet().forEach(op -> stats.put(op, new EndpointStats(op)));
+        EndpointStats wsNotify = new EndpointStats("ws-notify");
+        stats.put(wsNotify.name(), wsNotify);
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        ChangeSequence changes = new ChangeSequence();
+        StompSession session = subscribeNotifications(stompClient,
+                notificationApp.getEnvironment().getProperty("local.server.port"), workload, wsNotify, changes);
+
+        run(config, workload, stats, config.warmup(), "aquecimento");
+        stats.values().forEach(EndpointStats::reset);
+        long started = System.nanoTime();
+        run(config, workload, stats, config.duration(), "medição");
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        session.disconnect();
+        stompClient.stop();
+        log("Lotes em %s: %d recebidos, %d saltos de sequence, %d fora de ordem",
+                ChangeNotificationService.TOPIC, changes.received.get(), changes.gaps.get(), changes.outOfOrder.get());
+        if (changes.outOfOrder.get() > 0) {
+            throw new IllegalStateException(changes.outOfOrder.get() + " lotes de " + ChangeNotificationService.TOPIC + " chegaram fora de ordem");
+        }
+        return new LoadRun(stats, seconds);
+    }
+
+    /**
+     * Ordem dos lotes recebidos por source. Salto (lote descartado na fila de saída) só é contado;
+     * sequence menor ou igual ao último visto é um lote entregue fora de ordem.
+     */
+    private static final class ChangeSequence {
+        private final Map<String, Long> last = new ConcurrentHashMap<>();
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong gaps = new AtomicLong();
+        private final AtomicLong outOfOrder = new AtomicLong();
+
+        void accept(ChangeBatchDTO batch) {
+            received.incrementAndGet();
+            Long previous = last.put(batch.getSource(), batch.getSequence());
+            if (previous == null) {
+                return;
+            }
+            if (batch.getSequence() <= previous) {
+                outOfOrder.incrementAndGet();
+            } else if (batch.getSequence() > previous + 1) {
+                gaps.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Resultado de uma medição: estatísticas por operação e a duração real da fase.
+     */
+    private record LoadRun(Map<String, EndpointStats> stats, double seconds) {
+    }
+
+    private static String createDatabase(EmbeddedPostgres postgres, String name) throws Exception {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+        return name;
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres, String database,
+                                                                   S3StubServer s3, StompBrokerStub broker,
+                                                                   String threading, LoadTestConfig config) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + "virtual".equals(threading),
+                "--spring.datasource.url=jdbc:postgresql://localhost:" + postgres.getPort() + "/" + database + "?reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--minio.url=" + s3.getUrl(),
+                "--minio.accessKey=loadtest",
+                "--minio.secretKey=loadtest-secret",
+                // Log por requisição distorce a medição
+                "--logging.level.root=WARN",
+                "--logging.level.com.seplag=WARN"));
+        if (broker != null) {
+            args.add("--app.websocket.broker=relay");
+            args.add("--app.websocket.relay.port=" + broker.getPort());
+        }
+        args.addAll(config.appArgs());
+        return SpringApplication.run(MusicApiApplication.class, args.toArray(String[]::new));
+    }
+
+    private static StompSession subscribeNotifications(WebSocketStompClient client, String port,
+                                                       ApiWorkload workload, EndpointStats wsNotify,
+                                                       ChangeSequence changes) throws Exception {
+        StompSession session = client.connectAsync("ws://localhost:" + port + "/ws/websocket", new StompSessionHandlerAdapter() {
+        }).get(10, TimeUnit.SECONDS);
+
+        session.subscribe("/topic/albums", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return AlbumNotificationDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                AlbumNotificationDTO notification = (AlbumNotificationDTO) payload;
+                Long sentAt = notification.getTitle() != null
+                        ? workload.pendingNotifications.remove(notification.getTitle())
+                        : null;
+                if (sentAt != null) {
+                    wsNotify.record(sentAt, true);
+                }
+            }
+        });
+        session.subscribe(ChangeNotificationService.TOPIC, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return ChangeBatchDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                changes.accept((ChangeBatchDTO) payload);
+            }
+        });
+        return session;
+    }
+
+    private static void run(LoadTestConfig config, ApiWorkload workload, Map<String, EndpointStats> stats,
+                            java.time.Duration duration, String phase) throws InterruptedException {
+        log("Fase de %s: %d threads por %s", phase, config.threads(), duration);
+        List<String> operations = new ArrayList<>();
+        config.mix().forEach((op, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(op);
+            }
+        });
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < config.threads(); i++) {
+            Thread thread = new Thread(() -> {
+                while (running.get()) {
+                    String op = operations.get(ThreadLocalRandom.current().nextInt(operations.size()));
+                    long start = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = workload.run(op);
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    stats.get(op).record(start, success);
+                }
+            }, "loadtest-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static File report(LoadTestConfig config, String threading, LoadRun result, S3StubServer s3,
+                               String suffix) throws Exception {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operação", "total", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : result.stats().values()) {
+            Map<String, Object> summary = endpoint.summary(result.seconds());
+            endpoints.put(endpoint.name(), summary);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+            System.out.printf("%-10s %9d %7d %9s %9s %9s %9s %9s %9s%n",
+                    endpoint.name(), endpoint.count(), endpoint.errors(), summary.get("throughputPerSec"),
+                    latency.get("p50"), latency.get("p90"), latency.get("p99"), latency.get("p999"), latency.get("max"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threading", threading);
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("threads", config.threads());
+        report.put("durationSeconds", Math.round(result.seconds() * 10) / 10.0);
+        report.put("mix", config.mix());
+        report.put("seedAlbums", config.seedAlbums());
+        report.put("s3LatencyMs", config.s3Latency().toMillis());
+        report.put("appArgs", config.appArgs());
+        report.put("broker", config.broker());
+        report.put("endpoints", endpoints);
+        report.put("s3StubRequests", s3.getRequestCount());
+        report.put("s3StubObjects", s3.getObjectCount());
+
+        File reportFile = new File(config.report().replaceFirst("(\\.json)?$", suffix + "$1"));
+        reportFile.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, report);
+
+        // Distribuição completa por operação (formato HdrHistogram .hgrm)
+        for (EndpointStats endpoint : result.stats().values()) {
+            File hgrm = new File(reportFile.getParentFile(), "loadtest-" + endpoint.name() + suffix + ".hgrm");
+            try (PrintStream out = new PrintStream(hgrm)) {
+                endpoint.writeDistribution(out);
+            }
+        }
+        log("Relatório em %s", reportFile.getAbsolutePath());
+        return reportFile;
+    }
+
+    /**
+     * Lado a lado por operação: vazão, p99 e erros de cada modo de threads.
+     */
+    private static void compare(Map<String, LoadRun> results) {
+        List<String> modes = new ArrayList<>(results.keySet());
+        System.out.printf("%n%-10s", "operação");
+        for (String mode : modes) {
+            System.out.printf(" %11s %11s %8s", "req/s " + mode.charAt(0), "p99 ms " + mode.charAt(0), "erros " + mode.charAt(0));
+        }
+        System.out.println();
+        for (String op : results.get(modes.get(0)).stats().keySet()) {
+            System.out.printf("%-10s", op);
+            for (String mode : modes) {
+                LoadRun run = results.get(mode);
+                EndpointStats endpoint = run.stats().get(op);
+                Map<String, Object> summary = endpoint.summary(run.seconds());
+                @SuppressWarnings("unchecked")
+                Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+                System.out.printf(" %11s %11s %8d", summary.get("throughputPerSec"), latency.get("p99"), endpoint.errors());
+            }
+            System.out.println();
+        }
+        log("p = threads de plataforma, v = virtual threads");
+    }
+
+    /**
+     * Guarda o scrape do Prometheus ao fim da medição: quebra do lado do servidor
+     * (services, MinIO, JWT, pool do Hikari, WebSocket, semáforos) para cruzar com as latências do cliente.
+     */
+    private static void saveServerMetrics(String port, File dir, String suffix) throws Exception {
+        HttpResponse<Path> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/prometheus")).build(),
+                HttpResponse.BodyHandlers.ofFile(new File(dir, "loadtest-metrics" + suffix + ".prom").toPath()));
+        log("Métricas do servidor (HTTP %d) em %s", response.statusCode(), response.body().toAbsolutePath());
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[loadtest] " + format + "%n", args);
+    }
+}
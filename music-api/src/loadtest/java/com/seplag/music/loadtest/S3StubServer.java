@@ -0,0 +1,344 @@
+package com.seplag.music.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stub S3 em memória com o subconjunto de operações que o MinioClient da aplicação usa:
+ * bucket (HEAD/PUT/location; versioning e lifecycle aceitos sem efeito), objeto (PUT/HEAD/GET com Range/DELETE) e multipart upload.
+ * Não confere assinaturas; serve só para medir a API sem um MinIO real.
+ * A latência opcional por requisição simula um MinIO remoto (a chamada da API fica bloqueada esse tempo).
+ */
+public class S3StubServer implements AutoCloseable {
+
+    private static final String XMLNS = "http://s3.amazonaws.com/doc/2006-03-01/";
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Set<String> buckets = ConcurrentHashMap.newKeySet();
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final long latencyMs;
+
+    public S3StubServer(Duration latency) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // Sem limite de threads: com latência simulada o stub não pode virar o gargalo do teste
+        this.executor = Executors.newCachedThreadPool();
+        this.latencyMs = latency.toMillis();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public S3StubServer start() {
+        server.start();
+        return this;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getObjectCount() {
+        return objects.size();
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"PUT".equals(method) && !"POST".equals(method)) {
+                // Corpo vazio precisa ser consumido, senão o HttpServer do JDK fecha a conexão keep-alive
+                exchange.getRequestBody().readAllBytes();
+            }
+            simulateLatency();
+            String rawPath = exchange.getRequestURI().getRawPath();
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String path = URLDecoder.decode(rawPath.substring(1), StandardCharsets.UTF_8);
+            int slash = path.indexOf('/');
+            String bucket = slash < 0 ? path : path.substring(0, slash);
+            String key = slash < 0 || slash == path.length() - 1 ? null : path.substring(slash + 1);
+
+            if (key == null) {
+                handleBucket(exchange, bucket, query);
+            } else if (!buckets.contains(bucket)) {
+                sendError(exchange, 404, "NoSuchBucket", "The specified bucket does not exist.");
+            } else if (query.containsKey("uploads") || query.containsKey("uploadId")) {
+                handleMultipart(exchange, bucket, key, query);
+            } else {
+                handleObject(exchange, bucket + "/" + key);
+            }
+        } catch (RuntimeException e) {
+            sendError(exchange, 500, "InternalError", e.getMessage());
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void handleBucket(HttpExchange exchange, String bucket, Map<String, String> query) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (query.containsKey("location")) {
+                    sendXml(exchange, 200, "<LocationConstraint xmlns=\"" + XMLNS + "\">us-east-1</LocationConstraint>");
+                } else if (query.containsKey("lifecycle")) {
+                    // O lifecycle gravado é ignorado: o bucket segue sem regras
+                    sendError(exchange, 404, "NoSuchLifecycleConfiguration", "The lifecycle configuration does not exist.");
+                } else {
+                    sendXml(exchange, 200, "<ListBucketResult xmlns=\"" + XMLNS + "\"><Name>" + bucket + "</Name></ListBucketResult>");
+                }
+            }
+            case "HEAD" -> {
+                if (buckets.contains(bucket)) {
+                    sendEmpty(exchange, 200);
+                } else {
+                    sendEmpty(exchange, 404);
+                }
+            }
+            case "PUT" -> {
+                exchange.getRequestBody().readAllBytes();
+                // ?versioning e ?lifecycle são aceitos e ignorados
+                if (!query.containsKey("versioning") && !query.containsKey("lifecycle")) {
+                    buckets.add(bucket);
+                }
+                sendEmpty(exchange, 200);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", exchange.getRequestMethod());
+        }
+    }
+
+    private void handleObject(HttpExchange exchange, String objectKey) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                byte[] body = readBody(exchange);
+                StoredObject stored = new StoredObject(body, contentType(exchange), md5(body), ZonedDateTime.now(ZoneOffset.UTC));
+                objects.put(objectKey, stored);
+                exchange.getResponseHeaders().add("ETag", "\"" + stored.etag() + "\"");
+                sendEmpty(exchange, 200);
+            }
+            case "HEAD" -> {
+                StoredObject stored = objects.get(objectKey);
+                if (stored == null) {
+                    sendEmpty(exchange, 404);
+                    return;
+                }
+                addObjectHeaders(exchange, stored);
+                exchange.getResponseHeaders().add("Content-Length", String.valueOf(stored.data().length));
+                exchange.sendResponseHeaders(200, -1);
+            }
+            case "GET" -> {
+                StoredObject stored = objects.get(objectKey);
+                if (stored == null) {
+                    sendError(exchange, 404, "NoSuchKey", "The specified key does not exist.");
+                    return;
+                }
+                addObjectHeaders(exchange, stored);
+                byte[] data = stored.data();
+                String range = exchange.getRequestHeaders().getFirst("Range");
+                Matcher m = range != null ? RANGE.matcher(range) : null;
+                if (m != null && m.matches()) {
+                    int start = (int) Math.min(Long.parseLong(m.group(1)), data.length);
+                    int end = m.group(2).isEmpty() ? data.length - 1 : (int) Math.min(Long.parseLong(m.group(2)), data.length - 1);
+                    int length = Math.max(0, end - start + 1);
+                    exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+                    send(exchange, 206, data, start, length);
+                } else {
+                    send(exchange, 200, data, 0, data.length);
+                }
+            }
+            case "DELETE" -> {
+                objects.remove(objectKey);
+                sendEmpty(exchange, 204);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", exchange.getRequestMethod());
+        }
+    }
+
+    private void handleMultipart(HttpExchange exchange, String bucket, String key, Map<String, String> query) throws IOException {
+        String method = exchange.getRequestMethod();
+        if ("POST".equals(method) && query.containsKey("uploads")) {
+            String uploadId = UUID.randomUUID().toString();
+            uploads.put(uploadId, new ConcurrentHashMap<>());
+            sendXml(exchange, 200, "<InitiateMultipartUploadResult xmlns=\"" + XMLNS + "\"><Bucket>" + bucket
+                    + "</Bucket><Key>" + key + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+            return;
+        }
+
+        String uploadId = query.get("uploadId");
+        Map<Integer, byte[]> parts = uploads.get(uploadId);
+        if (parts == null) {
+            sendError(exchange, 404, "NoSuchUpload", "The specified upload does not exist.");
+            return;
+        }
+
+        switch (method) {
+            case "PUT" -> {
+                byte[] body = readBody(exchange);
+                parts.put(Integer.parseInt(query.get("partNumber")), body);
+                exchange.getResponseHeaders().add("ETag", "\"" + md5(body) + "\"");
+                sendEmpty(exchange, 200);
+            }
+            case "POST" -> {
+                exchange.getRequestBody().readAllBytes();
+                uploads.remove(uploadId);
+                int total = parts.values().stream().mapToInt(p -> p.length).sum();
+                byte[] data = new byte[total];
+                int offset = 0;
+                for (byte[] part : new TreeMap<>(parts).values()) {
+                    System.arraycopy(part, 0, data, offset, part.length);
+                    offset += part.length;
+                }
+                String etag = md5(data) + "-" + parts.size();
+                objects.put(bucket + "/" + key, new StoredObject(data, "application/octet-stream", etag, ZonedDateTime.now(ZoneOffset.UTC)));
+                sendXml(exchange, 200, "<CompleteMultipartUploadResult xmlns=\"" + XMLNS + "\"><Bucket>" + bucket
+                        + "</Bucket><Key>" + key + "</Key><ETag>\"" + etag + "\"</ETag></CompleteMultipartUploadResult>");
+            }
+            case "DELETE" -> {
+                uploads.remove(uploadId);
+                sendEmpty(exchange, 204);
+            }
+            default -> sendError(exchange, 405, "MethodNotAllowed", method);
+        }
+    }
+
+    /**
+     * Corpo da requisição; remove o enquadramento aws-chunked se o cliente usar streaming signature.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw;
+        try (InputStream in = exchange.getRequestBody()) {
+            raw = in.readAllBytes();
+        }
+        String sha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (sha == null || !sha.startsWith("STREAMING-")) {
+            return raw;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+        int pos = 0;
+        while (pos < raw.length) {
+            int lineEnd = indexOfCrlf(raw, pos);
+            String header = new String(raw, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0], 16);
+            pos = lineEnd + 2;
+            if (size == 0) {
+                break;
+            }
+            out.write(raw, pos, size);
+            pos += size + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return data.length;
+    }
+
+    private static String contentType(HttpExchange exchange) {
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        return type != null ? type : "application/octet-stream";
+    }
+
+    private static void addObjectHeaders(HttpExchange exchange, StoredObject stored) {
+        exchange.getResponseHeaders().add("Content-Type", stored.contentType());
+        exchange.getResponseHeaders().add("ETag", "\"" + stored.etag() + "\"");
+        exchange.getResponseHeaders().add("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(stored.lastModified()));
+        exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        send(exchange, status, body, 0, body.length);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        sendXml(exchange, status, "<Error><Code>" + code + "</Code><Message>" + message + "</Message>"
+                + "<RequestId>stub</RequestId><HostId>stub</HostId></Error>");
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] data, int offset, int length) throws IOException {
+        exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+        if (length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(data, offset, length);
+            }
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static String md5(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredObject(byte[] data, String contentType, String etag, ZonedDateTime lastModified) {
+    }
+}
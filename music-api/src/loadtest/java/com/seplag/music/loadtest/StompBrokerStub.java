@@ -0,0 +1,210 @@
+package com.seplag.music.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker STOMP 1.2 mínimo em processo, no lugar do RabbitMQ/ActiveMQ no modo relay
+ * (app.websocket.broker=relay): CONNECT, SUBSCRIBE/UNSUBSCRIBE, SEND para todos os assinantes
+ * do destino e RECEIPT quando pedido. Sem autenticação, ack nem heart-beats (responde 0,0).
+ */
+public class StompBrokerStub implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong messageIds = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+
+    public StompBrokerStub() throws IOException {
+        this.server = new ServerSocket(0, 256, InetAddress.getLoopbackAddress());
+    }
+
+    public StompBrokerStub start() {
+        executor.execute(this::accept);
+        return this;
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        connections.forEach(Connection::close);
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Connection connection = new Connection(server.accept());
+                connections.add(connection);
+                executor.execute(connection::serve);
+            } catch (IOException e) {
+                // socket fechado no close()
+            }
+        }
+    }
+
+    private void publish(Frame send) {
+        published.incrementAndGet();
+        String destination = send.headers().get("destination");
+        for (Connection connection : connections) {
+            connection.subscriptions.forEach((id, subscribed) -> {
+                if (subscribed.equals(destination)) {
+                    Map<String, String> headers = new LinkedHashMap<>(send.headers());
+                    headers.remove("receipt");
+                    headers.put("subscription", id);
+                    headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                    connection.write(new Frame("MESSAGE", headers, send.body()));
+                }
+            });
+        }
+    }
+
+    private record Frame(String command, Map<String, String> headers, byte[] body) {
+    }
+
+    private class Connection {
+
+        private final Socket socket;
+        private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+        private OutputStream out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void serve() {
+            try (socket) {
+                socket.setTcpNoDelay(true);
+                InputStream in = new BufferedInputStream(socket.getInputStream());
+                out = socket.getOutputStream();
+                Frame frame;
+                while ((frame = read(in)) != null) {
+                    handle(frame);
+                }
+            } catch (IOException e) {
+                // conexão encerrada pelo relay
+            } finally {
+                connections.remove(this);
+            }
+        }
+
+        private void handle(Frame frame) {
+            String receipt = frame.headers().get("receipt");
+            switch (frame.command()) {
+                case "CONNECT", "STOMP" -> write(new Frame("CONNECTED",
+                        Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]));
+                case "SUBSCRIBE" -> subscriptions.put(frame.headers().get("id"), frame.headers().get("destination"));
+                case "UNSUBSCRIBE" -> subscriptions.remove(frame.headers().get("id"));
+                case "SEND" -> publish(frame);
+                // Quem fecha a conexão é o relay, depois do RECEIPT
+                case "DISCONNECT" -> subscriptions.clear();
+                default -> {
+                    // ACK/NACK/transações não são usados pelo relay da aplicação
+                }
+            }
+            if (receipt != null) {
+                write(new Frame("RECEIPT", Map.of("receipt-id", receipt), new byte[0]));
+            }
+        }
+
+        synchronized void write(Frame frame) {
+            try {
+                StringBuilder head = new StringBuilder(frame.command()).append('\n');
+                frame.headers().forEach((name, value) -> {
+                    if (!name.equals("content-length")) {
+                        head.append(name).append(':').append(value).append('\n');
+                    }
+                });
+                head.append("content-length:").append(frame.body().length).append("\n\n");
+                out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+                out.write(frame.body());
+                out.write(0);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // já fechado
+            }
+        }
+
+        /**
+         * Lê um frame; linhas vazias antes do comando são heart-beats. Os valores de cabeçalho
+         * seguem escapados como chegaram e são repassados assim no MESSAGE.
+         */
+        private Frame read(InputStream in) throws IOException {
+            String command;
+            do {
+                command = readLine(in);
+                if (command == null) {
+                    return null;
+                }
+            } while (command.isEmpty());
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                // STOMP 1.2: vale a primeira ocorrência de um cabeçalho repetido
+                headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+            }
+
+            byte[] body;
+            String contentLength = headers.get("content-length");
+            if (contentLength != null) {
+                body = in.readNBytes(Integer.parseInt(contentLength));
+                in.read(); // NUL
+            } else {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                int b;
+                while ((b = in.read()) > 0) {
+                    buffer.write(b);
+                }
+                body = buffer.toByteArray();
+            }
+            return new Frame(command, headers, body);
+        }
+
+        private String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    return null;
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
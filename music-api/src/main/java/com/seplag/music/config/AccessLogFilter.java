@@ -0,0 +1,179 @@
+package com.seplag.music.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Access log estruturado (uma linha JSON por requisição no logger "music.access"), amostrado e assíncrono.
+ * Erros 5xx e requisições lentas são sempre registrados; as demais entram com probabilidade sample-rate
+ * (o campo sampleRate permite extrapolar contagens). Na thread da requisição só se monta o registro:
+ * serialização e escrita ficam no accessLogExecutor.
+ */
+@Component
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    /** Usuário autenticado, preenchido pelo JwtAuthenticationFilter. */
+    public static final String USER_ATTRIBUTE = AccessLogFilter.class.getName() + ".user";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("music.access");
+
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final Counter written;
+    private final Counter dropped;
+
+    public AccessLogFilter(ObjectMapper objectMapper,
+                           @Qualifier("accessLogExecutor") TaskExecutor executor,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.access-log.enabled:true}") boolean enabled,
+                           @Value("${app.access-log.sample-rate:0.01}") double sampleRate,
+                           @Value("${app.access-log.slow-threshold:1s}") Duration slowThreshold) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.written = eventCounter(meterRegistry, "written");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("music.access.log")
+                .description("Linhas do access log gravadas ou descartadas por fila cheia")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !ACCESS_LOG.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Export em streaming: o status e a duração só são conhecidos no fim do processamento assíncrono
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                record(request, response, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long start) {
+        long elapsed = System.nanoTime() - start;
+        int status = response.getStatus();
+        String reason = reason(status, elapsed);
+        if (reason == null) {
+            return;
+        }
+
+        Entry entry = new Entry(
+                Instant.now(),
+                request.getMethod(),
+                request.getRequestURI(),
+                status,
+                elapsed / 1_000_000.0,
+                (String) request.getAttribute(USER_ATTRIBUTE),
+                reason,
+                sampleRate);
+        try {
+            executor.execute(() -> write(entry));
+        } catch (TaskRejectedException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Motivo do registro, ou null quando a requisição fica fora da amostra.
+     */
+    String reason(int status, long elapsedNanos) {
+        if (status >= 500) {
+            return "error";
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            return "slow";
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return "sample";
+        }
+        return null;
+    }
+
+    private void write(Entry entry) {
+        try {
+            ACCESS_LOG.info(objectMapper.writeValueAsString(entry));
+            written.increment();
+        } catch (JsonProcessingException e) {
+            log.debug("Falha ao serializar linha do access log: {}", e.getMessage());
+        }
+    }
+
+    record Entry(Instant timestamp, String method, String path, int status, double durationMs,
+                 String user, String reason, double sampleRate) {
+    }
+
+    private class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.seplag.music.config;
+
+import com.seplag.music.exception.ConcurrencyLimitExceededException;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que exige uma permissão do {@link ConcurrencyLimiter} antes de pedir conexão ao pool.
+ * A permissão é devolvida no close() da conexão, então vale pelo tempo em que a conexão fica emprestada.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+
+    private final ConcurrencyLimiter limiter;
+
+    public BoundedDataSource(DataSource target, ConcurrencyLimiter limiter) {
+        super(target);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return bound(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return bound(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            limiter.acquire();
+        } catch (ConcurrencyLimitExceededException e) {
+            // Mesmo tipo que o Hikari usa no timeout do pool; a causa leva ao 503
+            throw new SQLTransientConnectionException(e.getMessage(), e);
+        }
+    }
+
+    private Connection bound(ConnectionSupplier supplier) throws SQLException {
+        Connection target;
+        try {
+            target = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            limiter.release();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                new PermitReleasingHandler(target, limiter));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Repassa tudo para a conexão real e devolve a permissão no primeiro close().
+     */
+    private static class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final ConcurrencyLimiter limiter;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingHandler(Connection target, ConcurrencyLimiter limiter) {
+            this.target = target;
+            this.limiter = limiter;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            limiter.release();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
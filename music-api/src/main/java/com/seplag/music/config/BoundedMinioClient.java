@@ -0,0 +1,109 @@
+package com.seplag.music.config;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.errors.InsufficientDataException;
+import io.minio.errors.InternalException;
+import io.minio.errors.InvalidResponseException;
+import io.minio.errors.ServerException;
+import io.minio.errors.XmlParserException;
+
+import java.io.IOException;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * MinioClient que passa pelo {@link ConcurrencyLimiter} nas chamadas de rede usadas pelo StorageService.
+ * A assinatura de URLs (getPresignedObjectUrl) é só CPU e não é limitada.
+ * No getObject a permissão vale até a resposta chegar; a leitura do corpo fica fora do limite.
+ */
+public class BoundedMinioClient extends MinioClient {
+
+    private final ConcurrencyLimiter limiter;
+
+    public BoundedMinioClient(MinioClient client, ConcurrencyLimiter limiter) {
+        super(client);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ObjectWriteResponse putObject(PutObjectArgs args)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        limiter.acquire();
+        try {
+            return super.putObject(args);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public StatObjectResponse statObject(StatObjectArgs args)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        limiter.acquire();
+        try {
+            return super.statObject(args);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public GetObjectResponse getObject(GetObjectArgs args)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        limiter.acquire();
+        try {
+            return super.getObject(args);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void removeObject(RemoveObjectArgs args)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        limiter.acquire();
+        try {
+            super.removeObject(args);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public boolean bucketExists(BucketExistsArgs args)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        limiter.acquire();
+        try {
+            return super.bucketExists(args);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public void makeBucket(MakeBucketArgs args)
+            throws ErrorResponseException, InsufficientDataException, InternalException, InvalidKeyException,
+            InvalidResponseException, IOException, NoSuchAlgorithmException, ServerException, XmlParserException {
+        limiter.acquire();
+        try {
+            super.makeBucket(args);
+        } finally {
+            limiter.release();
+        }
+    }
+}
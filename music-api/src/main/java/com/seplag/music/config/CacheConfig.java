@@ -0,0 +1,38 @@
+package com.seplag.music.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // AlbumDTO montado (sem URLs das capas, resolvidas a cada leitura) por ID do álbum
+    public static final String ALBUM_DETAIL = "albumDetail";
+
+    @Value("${app.cache.album-detail.max-size:10000}")
+    private long albumDetailMaxSize;
+
+    @Value("${app.cache.album-detail.ttl:10m}")
+    private Duration albumDetailTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(ALBUM_DETAIL, Caffeine.newBuilder()
+                .maximumSize(albumDetailMaxSize)
+                .expireAfterWrite(albumDetailTtl)
+                .recordStats()
+                .build());
+        // Evicts só são aplicados após o commit, evitando repopular com dado antigo
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,43 @@
+package com.seplag.music.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo de entrega de cada mensagem STOMP a um handler do canal.
+ * No brokerChannel é o roteamento do broker para as assinaturas; no clientOutboundChannel
+ * é a escrita no WebSocket de cada sessão.
+ */
+public class ChannelMetricsInterceptor implements ExecutorChannelInterceptor {
+
+    private final Timer timer;
+    private final ThreadLocal<Long> startNanos = new ThreadLocal<>();
+
+    public ChannelMetricsInterceptor(MeterRegistry meterRegistry, String channel) {
+        this.timer = Timer.builder("music.websocket.send")
+                .description("Entrega de mensagens STOMP por canal")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        startNanos.set(System.nanoTime());
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        Long start = startNanos.get();
+        if (start != null) {
+            startNanos.remove();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.seplag.music.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Limites de concorrência na frente do pool de conexões e do MinIO.
+ * Necessários no modo virtual threads (spring.threads.virtual.enabled), em que cada requisição
+ * ganha sua própria thread e nada mais segura a quantidade de chamadas bloqueantes simultâneas.
+ * permits = 0 desativa o limite correspondente.
+ */
+@Configuration
+public class ConcurrencyConfig {
+
+    public static final String DATABASE = "database";
+    public static final String STORAGE = "storage";
+
+    @Bean
+    @ConditionalOnExpression("${app.concurrency.db.permits:10} > 0")
+    public ConcurrencyLimiter databaseLimiter(
+            @Value("${app.concurrency.db.permits:10}") int permits,
+            @Value("${app.concurrency.db.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter(DATABASE, permits, acquireTimeout);
+    }
+
+    @Bean
+    @ConditionalOnExpression("${app.concurrency.storage.permits:64} > 0")
+    public ConcurrencyLimiter storageLimiter(
+            @Value("${app.concurrency.storage.permits:64}") int permits,
+            @Value("${app.concurrency.storage.acquire-timeout:10s}") Duration acquireTimeout) {
+        return new ConcurrencyLimiter(STORAGE, permits, acquireTimeout);
+    }
+
+    /**
+     * Envolve o DataSource do Hikari no BoundedDataSource (métricas do Hikari continuam disponíveis via unwrap).
+     */
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Qualifier("databaseLimiter") ObjectProvider<ConcurrencyLimiter> databaseLimiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    ConcurrencyLimiter limiter = databaseLimiter.getIfAvailable();
+                    if (limiter != null) {
+                        return new BoundedDataSource(dataSource, limiter);
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.seplag.music.config;
+
+import com.seplag.music.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita as chamadas simultâneas a um recurso bloqueante (pool do Hikari, MinIO).
+ * Com virtual threads o pool do Tomcat deixa de ser o teto de concorrência: sem este limite
+ * milhares de requisições chegariam juntas ao pool de conexões e ao cliente HTTP do MinIO.
+ * O semáforo é justo (FIFO) e quem não obtém permissão dentro do prazo recebe
+ * ConcurrencyLimitExceededException, respondida como 503.
+ * A espera por permissão é medida em music.concurrency.acquire: com db.permits igual ao pool do Hikari a fila
+ * fica aqui, e hikaricp.connections.acquire passa a ficar perto de zero.
+ */
+public class ConcurrencyLimiter implements MeterBinder {
+
+    private final String resource;
+    private final int permits;
+    private final long acquireTimeoutNanos;
+    private final Semaphore semaphore;
+    private final LongAdder rejected = new LongAdder();
+    // Registrado em bindTo; antes disso a espera não é medida
+    private volatile Timer acquireTimer;
+
+    public ConcurrencyLimiter(String resource, int permits, Duration acquireTimeout) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits deve ser positivo: " + permits);
+        }
+        this.resource = resource;
+        this.permits = permits;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    /**
+     * Aguarda uma permissão até o prazo configurado; deve ser seguido de {@link #release()}.
+     */
+    public void acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            // Só a forma com prazo respeita a fila justa; tryAcquire() sem prazo passaria na frente de quem espera
+            acquired = semaphore.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyLimitExceededException(resource, "Interrompido aguardando acesso a " + resource);
+        } finally {
+            Timer timer = acquireTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new ConcurrencyLimitExceededException(resource,
+                    "Limite de acessos simultâneos a " + resource + " atingido (" + permits + "); tente novamente");
+        }
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getInUse() {
+        return permits - semaphore.availablePermits();
+    }
+
+    public int getWaiting() {
+        return semaphore.getQueueLength();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        acquireTimer = Timer.builder("music.concurrency.acquire")
+                .description("Espera por permissão, inclusive das recusadas por prazo")
+                .tag("resource", resource)
+                .register(registry);
+        Gauge.builder("music.concurrency.in.use", this, ConcurrencyLimiter::getInUse)
+                .description("Permissões em uso")
+                .tag("resource", resource)
+                .register(registry);
+        Gauge.builder("music.concurrency.waiting", this, ConcurrencyLimiter::getWaiting)
+                .description("Threads aguardando permissão")
+                .tag("resource", resource)
+                .register(registry);
+        Gauge.builder("music.concurrency.permits", this, ConcurrencyLimiter::getPermits)
+                .tag("resource", resource)
+                .register(registry);
+        FunctionCounter.builder("music.concurrency.rejected", this, ConcurrencyLimiter::getRejected)
+                .description("Chamadas recusadas por falta de permissão no prazo")
+                .tag("resource", resource)
+                .register(registry);
+    }
+}
@@ -0,0 +1,108 @@
+package com.seplag.music.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Executor padrão do Spring MVC assíncrono (export NDJSON via StreamingResponseBody) e do @Async.
+     * O do Boot só é criado sem nenhum outro Executor no contexto, e os pools abaixo o suprimiriam: o MVC cairia
+     * no SimpleAsyncTaskExecutor, com uma thread nova e sem limite por requisição.
+     * Declarado aqui com os mesmos builders do Boot: spring.task.execution.* e, com spring.threads.virtual.enabled,
+     * virtual threads.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(Environment environment,
+                                                     ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder simpleAsyncBuilder) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleAsyncBuilder.build();
+        }
+        return threadPoolBuilder.build();
+    }
+
+    /**
+     * Pool limitado para assinar URLs de capas em paralelo.
+     * Fila cheia rejeita a tarefa e o chamador cai para a URL pública.
+     * Fica em threads de plataforma mesmo com virtual threads: assinar é só CPU.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor coverUrlExecutor(
+            @Value("${minio.url-resolver.threads:8}") int threads,
+            @Value("${minio.url-resolver.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cover-url-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool limitado para gerar variantes (miniaturas) das capas fora das threads de requisição.
+     * Fila cheia rejeita a tarefa: a capa fica só com o original em vez de acumular trabalho.
+     * Fica em threads de plataforma mesmo com virtual threads: decodificar/redimensionar é CPU
+     * e o tamanho do pool é o que limita a memória das imagens abertas.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor coverDerivativeExecutor(
+            @Value("${app.covers.derivatives.threads:2}") int threads,
+            @Value("${app.covers.derivatives.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("cover-derivative-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thread única que serializa e grava o access log fora das threads de requisição.
+     * Fila cheia descarta a linha (contada em music.access.log) em vez de segurar a requisição.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor accessLogExecutor(
+            @Value("${app.access-log.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("access-log-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thread única que publica os lotes de alterações (ChangeNotificationService) ao fim de cada janela.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler changeNotificationScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("change-notify-");
+        scheduler.initialize();
+        return scheduler;
+    }
+}
@@ -0,0 +1,22 @@
+package com.seplag.music.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Métrica dos services anotados com @Timed (tags class, method e exception)
+    public static final String SERVICE_TIMER = "music.service";
+
+    /**
+     * Habilita @Timed em beans do Spring: cada chamada registra latência e contagem,
+     * e falhas saem com a tag exception preenchida.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
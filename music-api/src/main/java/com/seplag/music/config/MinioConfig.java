@@ -1,9 +1,21 @@
 package com.seplag.music.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class MinioConfig {
@@ -17,11 +29,81 @@ public class MinioConfig {
     @Value("${minio.secretKey}") // Mapeia para minio.secretKey
     private String secretKey;
 
+    // Com a região fixa o SDK não consulta o bucket (GET ?location) antes da primeira assinatura de URL
+    @Value("${minio.region:}")
+    private String region;
+
+    // O SDK executa as chamadas no Dispatcher do OkHttp, que por padrão aceita só 5 por host
+    @Value("${minio.http.max-requests:64}")
+    private int maxRequests;
+
+    @Value("${minio.http.max-idle-connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${minio.http.keep-alive:5m}")
+    private Duration keepAlive;
+
+    @Value("${minio.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${minio.http.timeouts.metadata:5s}")
+    private Duration metadataTimeout;
+
+    @Value("${minio.http.timeouts.transfer:60s}")
+    private Duration transferTimeout;
+
+    @Value("${minio.http.retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${minio.http.retry.initial-backoff:100ms}")
+    private Duration retryInitialBackoff;
+
+    @Value("${minio.http.retry.max-backoff:2s}")
+    private Duration retryMaxBackoff;
+
+    @Bean
+    public StorageCircuitBreaker storageCircuitBreaker(
+            @Value("${minio.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${minio.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        return new StorageCircuitBreaker(failureThreshold, openDuration);
+    }
+
+    /**
+     * Assinatura de URLs presigned sem o SDK; só com a região fixa (sem ela o SDK precisa consultá-la).
+     */
+    @Bean
+    @ConditionalOnExpression("'${minio.region:}' != ''")
+    public SigV4Presigner sigV4Presigner() {
+        return new SigV4Presigner(url, accessKey, secretKey, region);
+    }
+
     @Bean
-    public MinioClient minioClient() {
-        return MinioClient.builder()
+    public MinioClient minioClient(@Qualifier("storageLimiter") ObjectProvider<ConcurrencyLimiter> storageLimiter,
+                                   StorageCircuitBreaker circuitBreaker,
+                                   MeterRegistry meterRegistry) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        long transferTimeoutMs = transferTimeout.toMillis();
+        // Timeouts do cliente valem como teto; o interceptor ajusta leitura/escrita por operação
+        OkHttpClient httpClient = HttpUtils.newDefaultHttpClient(connectTimeout.toMillis(), transferTimeoutMs, transferTimeoutMs)
+                .newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .addInterceptor(new StorageHttpInterceptor(circuitBreaker, meterRegistry, metadataTimeout,
+                        transferTimeout, retryMaxAttempts, retryInitialBackoff, retryMaxBackoff))
+                .build();
+
+        MinioClient.Builder builder = MinioClient.builder()
                 .endpoint(url)
                 .credentials(accessKey, secretKey)
-                .build();
+                .httpClient(httpClient);
+        if (StringUtils.hasText(region)) {
+            builder.region(region);
+        }
+        MinioClient client = builder.build();
+        // Limita chamadas simultâneas ao MinIO (app.concurrency.storage.permits)
+        ConcurrencyLimiter limiter = storageLimiter.getIfAvailable();
+        return limiter != null ? new BoundedMinioClient(client, limiter) : client;
     }
-}
\ No newline at end of file
+}
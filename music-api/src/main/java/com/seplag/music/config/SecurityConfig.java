@@ -50,6 +50,8 @@ public class SecurityConfig {
                 .requestMatchers("/ws/**").permitAll()
                 // liberar endpoints públicos de auth e docs
                 .requestMatchers("/api/v1/auth/**", "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                // health e scrape do Prometheus (demais endpoints do actuator exigem autenticação)
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 // liberar GET público da API (se for sua intenção)
                 .requestMatchers(HttpMethod.GET, "/api/v1/**").permitAll()
                 .anyRequest().authenticated()
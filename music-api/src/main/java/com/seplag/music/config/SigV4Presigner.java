@@ -0,0 +1,183 @@
+package com.seplag.music.config;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+
+/**
+ * Assina URLs presigned (SigV4 por query string, payload UNSIGNED) localmente, com a mesma saída do
+ * MinioClient.getPresignedObjectUrl: mesmo escape do caminho, mesma ordem de parâmetros e mesma assinatura.
+ * Não consulta a região do bucket (usa a configurada) nem monta builders/args do SDK a cada chamada.
+ * A chave de assinatura derivada (4 HMACs) é reaproveitada durante o dia UTC; Mac e MessageDigest são por thread.
+ */
+public class SigV4Presigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final HexFormat HEX = HexFormat.of();
+    private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final String baseUrl;
+    private final String host;
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    private volatile SigningKey signingKey;
+
+    private record SigningKey(String day, SecretKeySpec key, String scope, String encodedCredential) {
+    }
+
+    public SigV4Presigner(String endpoint, String accessKey, String secretKey, String region) {
+        URI uri = URI.create(endpoint);
+        String scheme = uri.getScheme().toLowerCase();
+        int port = uri.getPort();
+        boolean defaultPort = port < 0 || (scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443);
+        // Mesmo cabeçalho Host que o SDK assina: porta só quando não for a padrão do esquema
+        this.host = defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+        this.baseUrl = scheme + "://" + host;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    public String presign(String method, String bucket, String objectName, int expirySeconds) {
+        return presign(method, bucket, objectName, expirySeconds, Instant.now());
+    }
+
+    String presign(String method, String bucket, String objectName, int expirySeconds, Instant now) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(now.getEpochSecond(), 0, ZoneOffset.UTC);
+        String amzDate = amzDate(time);
+        SigningKey key = signingKey(amzDate.substring(0, 8));
+
+        StringBuilder path = new StringBuilder(bucket.length() + objectName.length() + 16)
+                .append('/').append(bucket).append('/');
+        encodePath(objectName, path);
+
+        StringBuilder query = new StringBuilder(256)
+                .append("X-Amz-Algorithm=").append(ALGORITHM)
+                .append("&X-Amz-Credential=").append(key.encodedCredential())
+                .append("&X-Amz-Date=").append(amzDate)
+                .append("&X-Amz-Expires=").append(expirySeconds)
+                .append("&X-Amz-SignedHeaders=host");
+
+        String canonicalRequest = method + '\n' + path + '\n' + query + "\nhost:" + host + "\n\nhost\nUNSIGNED-PAYLOAD";
+        MessageDigest sha256 = SHA256.get();
+        String canonicalHash = HEX.formatHex(sha256.digest(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+        String stringToSign = ALGORITHM + '\n' + amzDate + '\n' + key.scope() + '\n' + canonicalHash;
+        String signature = HEX.formatHex(hmac(key.key(), stringToSign));
+
+        return new StringBuilder(baseUrl.length() + path.length() + query.length() + 96)
+                .append(baseUrl).append(path).append('?').append(query)
+                .append("&X-Amz-Signature=").append(signature)
+                .toString();
+    }
+
+    private SigningKey signingKey(String day) {
+        SigningKey current = signingKey;
+        if (current != null && current.day().equals(day)) {
+            return current;
+        }
+        byte[] dateKey = hmac(new SecretKeySpec(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), "HmacSHA256"), day);
+        byte[] regionKey = hmac(new SecretKeySpec(dateKey, "HmacSHA256"), region);
+        byte[] serviceKey = hmac(new SecretKeySpec(regionKey, "HmacSHA256"), SERVICE);
+        byte[] signing = hmac(new SecretKeySpec(serviceKey, "HmacSHA256"), "aws4_request");
+        String scope = day + '/' + region + '/' + SERVICE + "/aws4_request";
+        StringBuilder credential = new StringBuilder();
+        encodeSegment(accessKey + '/' + scope, credential);
+        current = new SigningKey(day, new SecretKeySpec(signing, "HmacSHA256"), scope, credential.toString());
+        signingKey = current;
+        return current;
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = MAC.get();
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao assinar URL: " + e.getMessage(), e);
+        }
+    }
+
+    private static String amzDate(LocalDateTime t) {
+        char[] out = new char[16];
+        write(out, 0, t.getYear(), 4);
+        write(out, 4, t.getMonthValue(), 2);
+        write(out, 6, t.getDayOfMonth(), 2);
+        out[8] = 'T';
+        write(out, 9, t.getHour(), 2);
+        write(out, 11, t.getMinute(), 2);
+        write(out, 13, t.getSecond(), 2);
+        out[15] = 'Z';
+        return new String(out);
+    }
+
+    private static void write(char[] out, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * Escapa cada segmento do nome do objeto como o S3Escaper do SDK, mantendo as barras.
+     */
+    static void encodePath(String objectName, StringBuilder out) {
+        int start = 0;
+        int slash;
+        while ((slash = objectName.indexOf('/', start)) >= 0) {
+            encodeSegment(objectName.substring(start, slash), out);
+            out.append('/');
+            start = slash + 1;
+        }
+        encodeSegment(objectName.substring(start), out);
+    }
+
+    /**
+     * RFC 3986: só A-Z, a-z, 0-9 e -_.~ ficam como estão; o resto vira %XX dos bytes UTF-8.
+     */
+    static void encodeSegment(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                out.append(c);
+            } else if (c < 0x80) {
+                percent(out, c);
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    percent(out, b & 0xFF);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static void percent(StringBuilder out, int b) {
+        out.append('%').append(UPPER_HEX[b >> 4]).append(UPPER_HEX[b & 0xF]);
+    }
+}
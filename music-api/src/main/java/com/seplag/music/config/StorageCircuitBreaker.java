@@ -0,0 +1,108 @@
+package com.seplag.music.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker das chamadas HTTP ao MinIO, alimentado pelo {@link StorageHttpInterceptor}.
+ * Depois de failure-threshold falhas seguidas (erro de rede ou 5xx) o circuito abre por open-duration:
+ * as chamadas falham na hora e as URLs de capa usam a URL pública. Passado o prazo, uma única chamada
+ * de teste decide se o circuito fecha ou abre de novo.
+ */
+@Slf4j
+public class StorageCircuitBreaker implements MeterBinder {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long openedAt;
+    private volatile boolean open;
+
+    public StorageCircuitBreaker(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    StorageCircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failure-threshold deve ser positivo: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.clock = clock;
+    }
+
+    public State getState() {
+        if (!open) {
+            return State.CLOSED;
+        }
+        return clock.getAsLong() - openedAt < openDurationNanos ? State.OPEN : State.HALF_OPEN;
+    }
+
+    /**
+     * true enquanto o circuito estiver aberto e dentro do prazo: quem tem alternativa (URL pública) deve usá-la.
+     */
+    public boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    /**
+     * Decide se a chamada segue para o MinIO. Com o prazo vencido só passa uma chamada de teste por vez.
+     */
+    public boolean tryAcquire() {
+        State state = getState();
+        if (state == State.CLOSED || (state == State.HALF_OPEN && probeInFlight.compareAndSet(false, true))) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        probeInFlight.set(false);
+        if (open) {
+            open = false;
+            log.info("MinIO respondeu; circuito fechado");
+        }
+    }
+
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        boolean probeFailed = probeInFlight.getAndSet(false);
+        if (probeFailed || (!open && failures >= failureThreshold)) {
+            openedAt = clock.getAsLong();
+            open = true;
+            log.warn("MinIO com {} falhas seguidas; circuito aberto por {} ms",
+                    failures, openDurationNanos / 1_000_000);
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("music.storage.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("Circuito do MinIO: 0 fechado, 1 aberto, 2 meio-aberto")
+                .register(registry);
+        FunctionCounter.builder("music.storage.circuit.rejected", this, StorageCircuitBreaker::getRejected)
+                .description("Chamadas ao MinIO recusadas com o circuito aberto")
+                .register(registry);
+    }
+}
@@ -0,0 +1,115 @@
+package com.seplag.music.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor do OkHttp do MinioClient:
+ * - timeout por tipo de operação: metadados (HEAD/DELETE, operações de bucket) curtos, transferência (GET/PUT/POST de objeto) longos;
+ * - novas tentativas com backoff exponencial e jitter para GET/HEAD/DELETE (idempotentes e sem corpo) em erro de rede ou 5xx;
+ * - {@link StorageCircuitBreaker}: recusa na hora com o circuito aberto e registra o resultado de cada chamada.
+ */
+public class StorageHttpInterceptor implements Interceptor {
+
+    private static final Set<String> IDEMPOTENT = Set.of("GET", "HEAD", "DELETE");
+
+    private final StorageCircuitBreaker circuitBreaker;
+    private final int metadataTimeoutMs;
+    private final int transferTimeoutMs;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final Counter retries;
+
+    public StorageHttpInterceptor(StorageCircuitBreaker circuitBreaker, MeterRegistry meterRegistry,
+                                  Duration metadataTimeout, Duration transferTimeout,
+                                  int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this.circuitBreaker = circuitBreaker;
+        this.metadataTimeoutMs = (int) metadataTimeout.toMillis();
+        this.transferTimeoutMs = (int) transferTimeout.toMillis();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoff.toMillis();
+        this.maxBackoffMs = maxBackoff.toMillis();
+        this.retries = Counter.builder("music.storage.retries")
+                .description("Novas tentativas de chamadas idempotentes ao MinIO")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        int timeoutMs = isTransfer(request) ? transferTimeoutMs : metadataTimeoutMs;
+        Chain timed = chain.withReadTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .withWriteTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        int attempts = IDEMPOTENT.contains(request.method()) ? maxAttempts : 1;
+
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new IOException("MinIO indisponível (circuito aberto)");
+            }
+            Response response;
+            try {
+                response = timed.proceed(request);
+            } catch (IOException e) {
+                circuitBreaker.recordFailure();
+                if (attempt >= attempts || e instanceof InterruptedIOException && Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                backoff(attempt);
+                continue;
+            } catch (RuntimeException | Error e) {
+                // Sem registrar, uma chamada de teste que estoura aqui deixaria o circuito meio-aberto para sempre
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+            if (response.code() < 500) {
+                // 4xx (NoSuchKey, AccessDenied...) é resposta válida: o MinIO está de pé
+                circuitBreaker.recordSuccess();
+                return response;
+            }
+            circuitBreaker.recordFailure();
+            if (attempt >= attempts) {
+                return response;
+            }
+            response.close();
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * Chamadas com conteúdo de objeto no corpo: GET/PUT/POST com chave (não de bucket).
+     */
+    private static boolean isTransfer(Request request) {
+        String method = request.method();
+        if (method.equals("HEAD") || method.equals("DELETE")) {
+            return false;
+        }
+        // O SDK usa URLs no estilo path com o MinIO: /bucket (operação de bucket) ou /bucket/objeto
+        String path = request.url().encodedPath();
+        boolean bucketOnly = path.indexOf('/', 1) < 0 || path.indexOf('/', 1) == path.length() - 1;
+        return !bucketOnly;
+    }
+
+    private void backoff(int attempt) throws IOException {
+        retries.increment();
+        // Jitter completo: espera aleatória até o teto exponencial, para as réplicas não voltarem juntas
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando nova tentativa ao MinIO");
+        }
+    }
+}
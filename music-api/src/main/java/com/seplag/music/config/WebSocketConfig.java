@@ -1,13 +1,70 @@
 package com.seplag.music.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.socket.config.annotation.*;
 
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final MeterRegistry meterRegistry;
+
+    // simple: broker em memória (só clientes deste nó); relay: broker STOMP externo compartilhado pelas réplicas
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${app.websocket.inbound.threads:4}")
+    private int inboundThreads;
+
+    @Value("${app.websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.outbound.threads:4}")
+    private int outboundThreads;
+
+    @Value("${app.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    // Limites por sessão: cliente lento que estourar um deles é desconectado
+    @Value("${app.websocket.send-time-limit:5s}")
+    private Duration sendTimeLimit;
+
+    @Value("${app.websocket.send-buffer-size-limit:256KB}")
+    private DataSize sendBufferSizeLimit;
+
+    @Value("${app.websocket.message-size-limit:64KB}")
+    private DataSize messageSizeLimit;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Endpoint para conexão WebSocket
@@ -19,8 +76,84 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Prefixo para mensagens enviadas do servidor para o cliente
-        registry.enableSimpleBroker("/topic");
+        if ("relay".equals(brokerMode)) {
+            // Cada réplica repassa /topic ao broker (ex.: RabbitMQ com plugin STOMP): a notificação
+            // publicada em um nó chega aos clientes conectados em qualquer outro
+            StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+            if (StringUtils.hasText(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else {
+            registry.enableSimpleBroker("/topic");
+        }
+        // O outbound tem várias threads: sem isto, lotes publicados em sequência (ChangeNotificationService.flush)
+        // podem chegar fora de ordem à mesma sessão e o cliente veria um salto de sequence inexistente
+        registry.setPreservePublishOrder(true);
         // Prefixo para mensagens enviadas do cliente para o servidor (se precisar)
         registry.setApplicationDestinationPrefixes("/app");
+        // Latência do broker ao rotear notificações (convertAndSend) para as assinaturas
+        registry.configureBrokerChannel().interceptors(new ChannelMetricsInterceptor(meterRegistry, "broker"));
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Padrão do Spring: fila sem limite; aqui fila cheia recusa a mensagem do cliente (AbortPolicy):
+        // o StompSubProtocolHandler responde com um frame ERROR em vez de perder CONNECT/SUBSCRIBE/DISCONNECT em silêncio
+        Counter rejected = Counter.builder("music.websocket.rejected")
+                .description("Mensagens STOMP de clientes recusadas por fila cheia (respondidas com ERROR)")
+                .tag("channel", "inbound")
+                .register(meterRegistry);
+        registration.taskExecutor(channelExecutor("inbound", inboundThreads, inboundQueueCapacity, (task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("Fila do canal inbound cheia");
+        }));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Mensagens para as sessões; o que não couber na fila é descartado em vez de acumular memória.
+        // A recusa precisa lançar exceção: com preserve-publish-order a fila ordenada da sessão só libera a próxima
+        // mensagem quando o envio termina ou falha; um descarte silencioso travaria a sessão com a fila crescendo.
+        // A exceção não chega ao broker/relay: a fila da sessão registra o erro e descarta a mensagem
+        Counter dropped = Counter.builder("music.websocket.dropped")
+                .description("Mensagens STOMP descartadas por fila cheia")
+                .tag("channel", "outbound")
+                .register(meterRegistry);
+        registration.taskExecutor(channelExecutor("outbound", outboundThreads, outboundQueueCapacity, (task, pool) -> {
+            dropped.increment();
+            throw new RejectedExecutionException("Fila do canal outbound cheia");
+        }));
+        // Latência da escrita de cada mensagem no WebSocket do cliente
+        registration.interceptors(new ChannelMetricsInterceptor(meterRegistry, "outbound"));
+    }
+
+    /**
+     * Pool limitado de um canal STOMP; rejected decide o que acontece com a fila cheia.
+     * Inicializado pelo Spring (o executor vira bean clientInbound/OutboundChannelExecutor).
+     */
+    private static ThreadPoolTaskExecutor channelExecutor(String channel, int threads, int queueCapacity,
+                                                          RejectedExecutionHandler rejected) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ws-" + channel + "-");
+        executor.setRejectedExecutionHandler(rejected);
+        return executor;
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Um envio preso (cliente que não lê) não segura as threads do outbound além de send-time-limit,
+        // e o que se acumula para a sessão nesse meio-tempo fica limitado a send-buffer-size-limit
+        registration.setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSizeLimit.toBytes())
+                .setMessageSizeLimit((int) messageSizeLimit.toBytes());
     }
-}
\ No newline at end of file
+}
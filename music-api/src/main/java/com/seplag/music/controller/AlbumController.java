@@ -2,16 +2,24 @@ package com.seplag.music.controller;
 
 import com.seplag.music.domain.dto.AlbumCreateUpdateDTO;
 import com.seplag.music.domain.dto.AlbumDTO;
+import com.seplag.music.domain.dto.CursorPageDTO;
+import com.seplag.music.domain.dto.ImportResultDTO;
+import com.seplag.music.service.AlbumImportService;
 import com.seplag.music.service.AlbumService;
+import com.seplag.music.service.CatalogExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/albums")
@@ -20,6 +28,8 @@ import org.springframework.web.bind.annotation.*;
 public class AlbumController {
 
     private final AlbumService albumService;
+    private final CatalogExportService catalogExportService;
+    private final AlbumImportService albumImportService;
 
     @PostMapping
     @Operation(summary = "Criar novo álbum")
@@ -72,6 +82,35 @@ public class AlbumController {
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Listar álbuns por cursor (keyset), sem contagem total. Use nextCursor em ?after=")
+    public ResponseEntity<CursorPageDTO<AlbumDTO>> findAllByCursor(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) Long artistId,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        CursorPageDTO<AlbumDTO> page = albumService.findByCursor(title, artistId, order, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar catálogo completo em NDJSON (streaming, um álbum por linha)")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = catalogExportService::exportAlbums;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"albums.ndjson\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Importar álbuns em lote (CSV ou NDJSON) com artistas por nome")
+    public ResponseEntity<ImportResultDTO> importAlbums(@RequestParam("file") MultipartFile file) {
+        ImportResultDTO result = albumImportService.importAlbums(file);
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/{albumId}/artists/{artistId}")
     @Operation(summary = "Adicionar artista a um álbum")
     public ResponseEntity<Void> addArtist(
@@ -2,7 +2,11 @@ package com.seplag.music.controller;
 
 import com.seplag.music.domain.dto.AlbumCoverDTO;
 import com.seplag.music.domain.dto.AlbumCoverPresignedDTO;
+import com.seplag.music.domain.dto.CoverUploadConfirmDTO;
+import com.seplag.music.domain.dto.CoverUploadRequestDTO;
+import com.seplag.music.domain.dto.CoverUploadTicketDTO;
 import com.seplag.music.service.AlbumCoverService;
+import com.seplag.music.service.CoverImageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +14,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -27,9 +35,11 @@ import java.util.List;
 public class AlbumCoverController {
 
     private final AlbumCoverService albumCoverService;
+    private final CoverImageService coverImageService;
 
-    public AlbumCoverController(AlbumCoverService albumCoverService) {
+    public AlbumCoverController(AlbumCoverService albumCoverService, CoverImageService coverImageService) {
         this.albumCoverService = albumCoverService;
+        this.coverImageService = coverImageService;
     }
 
     /**
@@ -57,6 +67,83 @@ public class AlbumCoverController {
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 
+    /**
+     * Faz upload de uma capa enviando a imagem como corpo da requisição (streaming)
+     */
+    @PutMapping(value = "/stream", consumes = "image/*")
+    @Operation(
+            summary = "Upload de capa do álbum (streaming)",
+            description = "Envia a imagem crua no corpo (Content-Type image/*), repassada ao storage sem buffer do arquivo inteiro. " +
+                    "Tamanho (10MB), tipo e checksum são verificados durante o envio.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Capa enviada com sucesso"),
+                    @ApiResponse(responseCode = "400", description = "Arquivo vazio, maior que 10MB ou não é imagem"),
+                    @ApiResponse(responseCode = "401", description = "Não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Álbum não encontrado")
+            }
+    )
+    public ResponseEntity<AlbumCoverPresignedDTO> uploadCoverStream(
+            @Parameter(description = "ID do álbum", required = true)
+            @PathVariable Long albumId,
+            @Parameter(description = "Nome original do arquivo")
+            @RequestParam(required = false) String fileName,
+            HttpServletRequest request) throws IOException {
+
+        log.info("Recebido upload (streaming) de capa para álbum ID: {}", albumId);
+        AlbumCoverPresignedDTO result = albumCoverService.uploadCoverStream(
+                albumId, request.getInputStream(), request.getContentLengthLong(), request.getContentType(), fileName);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    /**
+     * Fase 1 do upload direto: obtém uma URL presigned de PUT
+     */
+    @PostMapping("/upload-url")
+    @Operation(
+            summary = "Gerar URL de upload direto",
+            description = "Retorna uma URL presigned de PUT para enviar a imagem direto ao storage (com o mesmo Content-Type). " +
+                    "Após o envio, confirme em /confirm com o objectName retornado.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "URL gerada"),
+                    @ApiResponse(responseCode = "400", description = "Tipo ou tamanho inválido"),
+                    @ApiResponse(responseCode = "401", description = "Não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Álbum não encontrado")
+            }
+    )
+    public ResponseEntity<CoverUploadTicketDTO> createUploadUrl(
+            @Parameter(description = "ID do álbum", required = true)
+            @PathVariable Long albumId,
+            @Valid @RequestBody CoverUploadRequestDTO request) {
+
+        log.info("Solicitada URL de upload direto para álbum ID: {}", albumId);
+        return ResponseEntity.ok(albumCoverService.createUploadTicket(albumId, request));
+    }
+
+    /**
+     * Fase 2 do upload direto: confirma o objeto enviado e cria a capa
+     */
+    @PostMapping("/confirm")
+    @Operation(
+            summary = "Confirmar upload direto",
+            description = "Lê o objeto enviado (tamanho, tipo e assinatura), grava a capa no endereço por conteúdo "
+                    + "e remove o objeto de upload.",
+            responses = {
+                    @ApiResponse(responseCode = "201", description = "Capa registrada"),
+                    @ApiResponse(responseCode = "400", description = "Objeto ausente, inválido ou já confirmado"),
+                    @ApiResponse(responseCode = "401", description = "Não autenticado"),
+                    @ApiResponse(responseCode = "404", description = "Álbum não encontrado")
+            }
+    )
+    public ResponseEntity<AlbumCoverPresignedDTO> confirmUpload(
+            @Parameter(description = "ID do álbum", required = true)
+            @PathVariable Long albumId,
+            @Valid @RequestBody CoverUploadConfirmDTO request) {
+
+        log.info("Confirmação de upload direto para álbum ID: {}", albumId);
+        AlbumCoverPresignedDTO result = albumCoverService.confirmUpload(albumId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
     /**
      * Lista todas as capas de um álbum
      */
@@ -101,6 +188,36 @@ public class AlbumCoverController {
         return ResponseEntity.ok(cover);
     }
 
+    /**
+     * Entrega a imagem da capa por URL estável, cacheável por navegadores e CDNs
+     */
+    @GetMapping("/{coverId}/image")
+    @Operation(
+            summary = "Imagem da capa",
+            description = "Retorna a imagem (original ou variante) com ETag forte e Cache-Control immutable. " +
+                    "Responde 304 para If-None-Match e 206 para um intervalo em Range.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Imagem retornada"),
+                    @ApiResponse(responseCode = "206", description = "Intervalo de bytes retornado"),
+                    @ApiResponse(responseCode = "304", description = "Imagem não modificada"),
+                    @ApiResponse(responseCode = "400", description = "Variante inválida"),
+                    @ApiResponse(responseCode = "404", description = "Capa não encontrada no álbum"),
+                    @ApiResponse(responseCode = "416", description = "Intervalo fora do tamanho da imagem")
+            }
+    )
+    public void getCoverImage(
+            @Parameter(description = "ID do álbum", required = true)
+            @PathVariable Long albumId,
+            @Parameter(description = "ID da capa", required = true)
+            @PathVariable Long coverId,
+            @Parameter(description = "original ou tamanho da variante em px (ex.: 256)")
+            @RequestParam(defaultValue = CoverImageService.ORIGINAL) String variant,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        coverImageService.serve(albumId, coverId, variant, request, response);
+    }
+
     /**
      * Define uma capa como primária
      */
@@ -2,6 +2,7 @@ package com.seplag.music.controller;
 
 import com.seplag.music.domain.dto.ArtistCreateUpdateDTO;
 import com.seplag.music.domain.dto.ArtistDTO;
+import com.seplag.music.domain.dto.CursorPageDTO;
 import com.seplag.music.domain.model.ArtistType;
 import com.seplag.music.service.ArtistService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -74,6 +75,18 @@ public class ArtistController {
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "Listar artistas por cursor (keyset), sem contagem total. Use nextCursor em ?after=")
+    public ResponseEntity<CursorPageDTO<ArtistDTO>> findAllByCursor(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) ArtistType type,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        CursorPageDTO<ArtistDTO> page = artistService.findByCursor(name, type, order, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/admin-only")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> adminOnly() {
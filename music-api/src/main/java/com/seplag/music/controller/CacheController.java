@@ -0,0 +1,30 @@
+package com.seplag.music.controller;
+
+import com.seplag.music.domain.dto.CacheStatsDTO;
+import com.seplag.music.service.CacheStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/caches")
+@RequiredArgsConstructor
+@Tag(name = "Caches", description = "Estatísticas dos caches (somente ADMIN)")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Hit ratio, tamanho e evictions de cada cache")
+    public ResponseEntity<List<CacheStatsDTO>> stats() {
+        return ResponseEntity.ok(cacheStatsService.getStats());
+    }
+}
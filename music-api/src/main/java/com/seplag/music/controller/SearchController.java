@@ -0,0 +1,28 @@
+package com.seplag.music.controller;
+
+import com.seplag.music.domain.dto.SearchResultDTO;
+import com.seplag.music.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Busca por álbuns e artistas")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    @Operation(summary = "Buscar álbuns e artistas por relevância")
+    public ResponseEntity<SearchResultDTO> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        SearchResultDTO result = searchService.search(query, type, limit);
+        return ResponseEntity.ok(result);
+    }
+}
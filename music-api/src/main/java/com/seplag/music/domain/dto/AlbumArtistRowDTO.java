@@ -0,0 +1,23 @@
+package com.seplag.music.domain.dto;
+
+import com.seplag.music.domain.model.ArtistType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha plana (álbum, artista) usada na montagem de páginas por projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumArtistRowDTO {
+
+    private Long albumId;
+    private Long artistId;
+    private String name;
+    private ArtistType type;
+    private LocalDateTime createdAt;
+}
@@ -7,9 +7,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -21,8 +22,10 @@ public class AlbumCoverDTO {
     private String objectName; // obrigatório para gerar a URL
     private String contentType;
     private Long fileSize;
+    private String checksum;
     private Boolean isPrimary;
     private String presignedUrl;
     private LocalDateTime createdAt;
     private String url; // será preenchido no service
+    private Map<String, String> variants; // tamanho (px) → URL da miniatura
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ public class AlbumCoverPresignedDTO {
     private String fileName;
     private String contentType;
     private Long fileSize;
+    private String checksum;
     private Boolean isPrimary;
     private String presignedUrl;
     private LocalDateTime createdAt;
@@ -0,0 +1,25 @@
+package com.seplag.music.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha plana de capa usada na montagem de páginas por projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumCoverRowDTO {
+
+    private Long albumId;
+    private Long id;
+    private String fileName;
+    private String objectName;
+    private String contentType;
+    private Long fileSize;
+    private Boolean isPrimary;
+    private LocalDateTime createdAt;
+}
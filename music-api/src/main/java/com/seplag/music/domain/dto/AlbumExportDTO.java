@@ -0,0 +1,23 @@
+package com.seplag.music.domain.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Linha do export NDJSON do catálogo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlbumExportDTO {
+
+    private Long id;
+    private String title;
+    private Integer releaseYear;
+    private LocalDateTime createdAt;
+    private List<ArtistDTO> artists;
+    private String primaryCoverUrl;
+}
@@ -0,0 +1,21 @@
+package com.seplag.music.domain.dto;
+
+import com.seplag.music.domain.model.ArtistType;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Linha de entrada da importação em lote (CSV ou NDJSON).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlbumImportRowDTO {
+
+    private String title;
+    private Integer releaseYear;
+    private List<String> artists;
+    private ArtistType artistType; // tipo usado para artistas novos (padrão SOLO)
+}
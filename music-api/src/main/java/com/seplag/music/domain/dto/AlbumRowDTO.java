@@ -0,0 +1,21 @@
+package com.seplag.music.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha plana de álbum usada na montagem de páginas por projeção.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlbumRowDTO {
+
+    private Long id;
+    private String title;
+    private Integer releaseYear;
+    private LocalDateTime createdAt;
+}
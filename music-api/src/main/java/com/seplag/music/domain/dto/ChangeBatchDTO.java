@@ -0,0 +1,35 @@
+package com.seplag.music.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Lote de alterações publicado em /topic/changes.
+ * sequence é contínuo por source (instância da API): um salto indica lote perdido e o cliente deve recarregar.
+ * resync=true pede recarga completa (ex.: importação em lote ou alterações demais para caber nos lotes).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeBatchDTO {
+
+    private String source;
+    private long sequence;
+    private long timestamp;
+    private boolean resync;
+    private List<ChangeDTO> changes;
+
+    /**
+     * Última alteração de uma entidade na janela: op = created, updated, covers ou deleted.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChangeDTO {
+        private String entity;
+        private Long id;
+        private String op;
+    }
+}
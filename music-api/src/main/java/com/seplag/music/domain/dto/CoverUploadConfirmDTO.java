@@ -0,0 +1,16 @@
+package com.seplag.music.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CoverUploadConfirmDTO {
+
+    @NotBlank(message = "objectName é obrigatório")
+    private String objectName;
+
+    private String fileName;
+}
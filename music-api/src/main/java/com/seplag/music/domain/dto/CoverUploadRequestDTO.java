@@ -0,0 +1,23 @@
+package com.seplag.music.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CoverUploadRequestDTO {
+
+    @NotBlank(message = "Nome do arquivo é obrigatório")
+    private String fileName;
+
+    @NotBlank(message = "Content-Type é obrigatório")
+    private String contentType;
+
+    @NotNull(message = "Tamanho do arquivo é obrigatório")
+    @Positive(message = "Tamanho do arquivo deve ser positivo")
+    private Long fileSize;
+}
@@ -0,0 +1,27 @@
+package com.seplag.music.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Autorização de upload direto ao storage: o cliente faz PUT do arquivo em uploadUrl
+ * (com o mesmo Content-Type) e depois confirma informando o objectName.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoverUploadTicketDTO {
+
+    private Long albumId;
+    private String objectName;
+    private String uploadUrl;
+    private String method;
+    private String contentType;
+    private Long maxFileSize;
+    private LocalDateTime expiresAt;
+}
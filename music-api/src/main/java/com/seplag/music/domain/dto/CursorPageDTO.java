@@ -0,0 +1,21 @@
+package com.seplag.music.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Página do modo cursor (keyset): não carrega total de elementos.
+ * nextCursor é opaco e deve ser reenviado em ?after= para obter a próxima página.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+
+    private List<T> content;
+    private int limit;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,27 @@
+package com.seplag.music.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportResultDTO {
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private int artistsCreated;
+    private List<RowError> errors;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        private int line;
+        private String message;
+    }
+}
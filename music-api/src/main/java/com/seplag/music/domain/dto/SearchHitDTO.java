@@ -0,0 +1,14 @@
+package com.seplag.music.domain.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchHitDTO {
+
+    private Long id;
+    private String name;
+    private Double score;
+}
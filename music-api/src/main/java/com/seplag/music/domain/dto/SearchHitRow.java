@@ -0,0 +1,13 @@
+package com.seplag.music.domain.dto;
+
+/**
+ * Projeção das consultas nativas de busca por similaridade.
+ */
+public interface SearchHitRow {
+
+    Long getId();
+
+    String getName();
+
+    Double getScore();
+}
@@ -0,0 +1,16 @@
+package com.seplag.music.domain.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SearchResultDTO {
+
+    private String query;
+    private List<SearchHitDTO> albums;
+    private List<SearchHitDTO> artists;
+}
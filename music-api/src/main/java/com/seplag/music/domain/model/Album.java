@@ -2,6 +2,8 @@ package com.seplag.music.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
@@ -33,8 +35,9 @@ public class Album {
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
-    // N:N com ARTIST
+    // N:N com ARTIST (IDs na região "album-artists"; os artistas vêm da região "artist")
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "album-artists")
     @JoinTable(
             name = "artist_album",
             joinColumns = @JoinColumn(name = "album_id"),
@@ -38,6 +38,9 @@ public class AlbumCover {
     @Column(name = "file_size")
     private Long fileSize;
 
+    @Column(name = "checksum", length = 64)
+    private String checksum; // SHA-256 (hex) do conteúdo
+
     @Column(name = "is_primary")
     private Boolean isPrimary; // Define se é a capa principal
 
@@ -0,0 +1,49 @@
+package com.seplag.music.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Variante redimensionada de uma capa, armazenada ao lado do original no MinIO.
+ */
+@Entity
+@Table(name = "album_cover_variant")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlbumCoverVariant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Só o ID: a variante é gravada de forma assíncrona, sem carregar a capa
+    @Column(name = "cover_id", nullable = false)
+    private Long coverId;
+
+    @Column(name = "variant", nullable = false)
+    private String variant; // lado maior em px
+
+    @Column(name = "width", nullable = false)
+    private Integer width;
+
+    @Column(name = "height", nullable = false)
+    private Integer height;
+
+    @Column(name = "object_name", nullable = false)
+    private String objectName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
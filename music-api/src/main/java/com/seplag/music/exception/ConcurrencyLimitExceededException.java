@@ -0,0 +1,18 @@
+package com.seplag.music.exception;
+
+import lombok.Getter;
+
+/**
+ * Lançada quando não há permissão livre para acessar um recurso limitado (banco, MinIO) dentro do prazo.
+ * Respondida como 503 pelo GlobalExceptionHandler, mesmo quando chega encapsulada por outra exceção.
+ */
+@Getter
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String resource;
+
+    public ConcurrencyLimitExceededException(String resource, String message) {
+        super(message);
+        this.resource = resource;
+    }
+}
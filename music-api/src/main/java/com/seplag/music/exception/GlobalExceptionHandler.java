@@ -4,6 +4,7 @@ import com.seplag.music.domain.dto.ErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -171,7 +172,13 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleRuntimeException(
             RuntimeException ex,
             HttpServletRequest request) {
-        
+
+        // Limite de concorrência (banco/MinIO) costuma chegar encapsulado pelo StorageService ou pelo JPA
+        ConcurrencyLimitExceededException limitExceeded = findCause(ex, ConcurrencyLimitExceededException.class);
+        if (limitExceeded != null) {
+            return handleConcurrencyLimitExceeded(limitExceeded, request);
+        }
+
         log.error("Runtime exception: ", ex);
 
         // Tenta identificar se é um erro de "não encontrado"
@@ -193,6 +200,34 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(error);
     }
 
+    private ResponseEntity<ErrorResponse> handleConcurrencyLimitExceeded(
+            ConcurrencyLimitExceededException ex,
+            HttpServletRequest request) {
+
+        log.warn("Concurrency limit exceeded: {} - {}", ex.getResource(), request.getRequestURI());
+
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    private static <T extends Throwable> T findCause(Throwable ex, Class<T> type) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex,
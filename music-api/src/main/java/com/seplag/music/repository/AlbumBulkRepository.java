@@ -0,0 +1,96 @@
+package com.seplag.music.repository;
+
+import com.seplag.music.domain.model.ArtistType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrita em lote via JDBC para a importação de álbuns.
+ * Album/Artist usam IDENTITY, o que desliga o batch de inserts do Hibernate;
+ * aqui os IDs são reservados da sequence antes e os inserts vão em batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AlbumBulkRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public Map<String, Long> findArtistIdsByName(Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.query("SELECT id, name FROM artist WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names),
+                rs -> {
+                    ids.put(rs.getString("name"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Insere artistas ignorando nomes que já existam (corrida com outra importação).
+     * Retorna quantos foram efetivamente criados.
+     */
+    public int insertArtists(Map<String, ArtistType> artists) {
+        if (artists.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] batch = artists.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("name", e.getKey())
+                        .addValue("type", e.getValue().name()))
+                .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO artist (name, type) VALUES (:name, :type) ON CONFLICT (name) DO NOTHING", batch);
+        int created = 0;
+        for (int count : counts) {
+            // com reWriteBatchedInserts o driver devolve SUCCESS_NO_INFO por linha
+            created += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return created;
+    }
+
+    public List<Long> reserveAlbumIds(int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval('album_id_seq') FROM generate_series(1, :count)",
+                new MapSqlParameterSource("count", count), Long.class);
+    }
+
+    public void insertAlbums(List<Long> ids, List<String> titles, List<Integer> releaseYears) {
+        List<SqlParameterSource> batch = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            batch.add(new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("title", titles.get(i))
+                    .addValue("releaseYear", releaseYears.get(i)));
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO album (id, title, release_year, created_at) VALUES (:id, :title, :releaseYear, NOW())",
+                batch.toArray(SqlParameterSource[]::new));
+    }
+
+    public void insertArtistAlbumLinks(List<long[]> links) {
+        if (links.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = links.stream()
+                .map(link -> new MapSqlParameterSource()
+                        .addValue("artistId", link[0])
+                        .addValue("albumId", link[1]))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO artist_album (artist_id, album_id) VALUES (:artistId, :albumId) ON CONFLICT DO NOTHING",
+                batch);
+    }
+}
@@ -17,4 +17,6 @@ public interface AlbumCoverRepository extends JpaRepository<AlbumCover, Long> {
     Optional<AlbumCover> findByAlbumIdAndIsPrimaryTrue(Long albumId);
 
     long countByAlbumId(Long albumId);
+
+    boolean existsByObjectName(String objectName);
 }
\ No newline at end of file
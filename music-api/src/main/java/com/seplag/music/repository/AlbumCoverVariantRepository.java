@@ -0,0 +1,21 @@
+package com.seplag.music.repository;
+
+import com.seplag.music.domain.model.AlbumCoverVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AlbumCoverVariantRepository extends JpaRepository<AlbumCoverVariant, Long> {
+
+    List<AlbumCoverVariant> findByCoverId(Long coverId);
+
+    List<AlbumCoverVariant> findByCoverIdIn(Collection<Long> coverIds);
+
+    /**
+     * Variantes derivadas de um mesmo original ({base}_{tamanho}.ext), de qualquer capa.
+     */
+    List<AlbumCoverVariant> findByObjectNameStartingWith(String prefix);
+}
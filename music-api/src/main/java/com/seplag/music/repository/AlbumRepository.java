@@ -1,38 +1,87 @@
 package com.seplag.music.repository;
 
+import com.seplag.music.domain.dto.AlbumArtistRowDTO;
+import com.seplag.music.domain.dto.AlbumCoverRowDTO;
+import com.seplag.music.domain.dto.AlbumRowDTO;
+import com.seplag.music.domain.dto.SearchHitRow;
 import com.seplag.music.domain.model.Album;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AlbumRepository extends JpaRepository<Album, Long> {
+public interface AlbumRepository extends JpaRepository<Album, Long>, AlbumRepositoryCustom {
 
     Optional<Album> findByTitle(String title);
 
     Page<Album> findByTitleContainingIgnoreCase(String title, Pageable pageable);
 
-    @Query("SELECT a FROM Album a JOIN a.artists ar WHERE ar.id = :artistId")
-    Page<Album> findByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+    // Paginação em duas etapas: primeiro só os IDs da página, depois as projeções por IDs.
+    // Evita paginar em memória um fetch join de duas coleções.
 
-    @Query("SELECT a FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY a.title ASC")
-    Page<Album> findByTitleOrderAsc(@Param("title") String title, Pageable pageable);
+    @Query(value = "SELECT a.id FROM Album a",
+            countQuery = "SELECT COUNT(a) FROM Album a")
+    Page<Long> findPageIds(Pageable pageable);
 
-    @Query("SELECT a FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY a.title DESC")
-    Page<Album> findByTitleOrderDesc(@Param("title") String title, Pageable pageable);
+    @Query(value = "SELECT a.id FROM Album a JOIN a.artists ar WHERE ar.id = :artistId",
+            countQuery = "SELECT COUNT(a) FROM Album a JOIN a.artists ar WHERE ar.id = :artistId")
+    Page<Long> findIdsByArtistId(@Param("artistId") Long artistId, Pageable pageable);
 
-    // Anota os métodos padrão para carregar artists e covers junto (evita LazyInitializationException)
-    @Override
-    @EntityGraph(attributePaths = {"artists", "covers"})
-    Page<Album> findAll(Pageable pageable);
+    @Query(value = "SELECT a.id FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY a.title ASC, a.id ASC",
+            countQuery = "SELECT COUNT(a) FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    Page<Long> findIdsByTitleOrderAsc(@Param("title") String title, Pageable pageable);
+
+    @Query(value = "SELECT a.id FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY a.title DESC, a.id DESC",
+            countQuery = "SELECT COUNT(a) FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    Page<Long> findIdsByTitleOrderDesc(@Param("title") String title, Pageable pageable);
+
+    @Query("SELECT new com.seplag.music.domain.dto.AlbumRowDTO(a.id, a.title, a.releaseYear, a.createdAt) " +
+            "FROM Album a WHERE a.id IN :ids")
+    List<AlbumRowDTO> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.seplag.music.domain.dto.AlbumArtistRowDTO(a.id, ar.id, ar.name, ar.type, ar.createdAt) " +
+            "FROM Album a JOIN a.artists ar WHERE a.id IN :ids")
+    List<AlbumArtistRowDTO> findArtistRowsByAlbumIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.seplag.music.domain.dto.AlbumCoverRowDTO(c.album.id, c.id, c.fileName, c.objectName, " +
+            "c.contentType, c.fileSize, c.isPrimary, c.createdAt) " +
+            "FROM AlbumCover c WHERE c.album.id IN :ids")
+    List<AlbumCoverRowDTO> findCoverRowsByAlbumIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.seplag.music.domain.dto.AlbumCoverRowDTO(c.album.id, c.id, c.fileName, c.objectName, " +
+            "c.contentType, c.fileSize, c.isPrimary, c.createdAt) " +
+            "FROM AlbumCover c WHERE c.album.id IN :ids AND c.isPrimary = true")
+    List<AlbumCoverRowDTO> findPrimaryCoverRowsByAlbumIdIn(@Param("ids") Collection<Long> ids);
+
+    // Leitura por cursor JDBC (fetch size) para o export; projeção não entra no contexto de persistência
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.seplag.music.domain.dto.AlbumRowDTO(a.id, a.title, a.releaseYear, a.createdAt) " +
+            "FROM Album a ORDER BY a.id")
+    Stream<AlbumRowDTO> streamAllRows();
+
+    // Busca ranqueada por similaridade de trigramas (usa idx_album_title_trgm)
+    @Query(value = "SELECT a.id AS id, a.title AS name, " +
+            "CAST(word_similarity(LOWER(:query), LOWER(a.title)) AS double precision) AS score " +
+            "FROM album a " +
+            "WHERE LOWER(a.title) LIKE '%' || LOWER(:query) || '%' OR LOWER(:query) <% LOWER(a.title) " +
+            "ORDER BY score DESC, a.title ASC, a.id ASC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<SearchHitRow> searchByTitle(@Param("query") String query, @Param("limit") int limit);
 
+    // Anota o findById para carregar artists e covers junto (evita LazyInitializationException)
     @Override
     @EntityGraph(attributePaths = {"artists", "covers"})
     Optional<Album> findById(Long id);
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.seplag.music.repository;
+
+import java.util.List;
+
+public interface AlbumRepositoryCustom {
+
+    /**
+     * Seleciona IDs de álbuns ordenados por (title, id) a partir da posição do cursor.
+     * Filtros title e artistId são opcionais; afterTitle/afterId nulos indicam a primeira página.
+     */
+    List<Long> findIdsByKeyset(String title, Long artistId, boolean desc,
+                               String afterTitle, Long afterId, int limit);
+}
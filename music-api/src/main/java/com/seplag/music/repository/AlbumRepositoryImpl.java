@@ -0,0 +1,50 @@
+package com.seplag.music.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class AlbumRepositoryImpl implements AlbumRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findIdsByKeyset(String title, Long artistId, boolean desc,
+                                      String afterTitle, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT a.id FROM Album a");
+        if (artistId != null) {
+            jpql.append(" JOIN a.artists ar");
+        }
+        jpql.append(" WHERE 1 = 1");
+        if (artistId != null) {
+            jpql.append(" AND ar.id = :artistId");
+        }
+        if (title != null) {
+            jpql.append(" AND LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))");
+        }
+        if (afterId != null) {
+            // Primeira condição delimita o range no índice (title, id); a segunda desempata pelo id
+            String cmp = desc ? "<" : ">";
+            jpql.append(" AND a.title ").append(cmp).append("= :afterTitle")
+                    .append(" AND (a.title ").append(cmp).append(" :afterTitle OR a.id ").append(cmp).append(" :afterId)");
+        }
+        String direction = desc ? "DESC" : "ASC";
+        jpql.append(" ORDER BY a.title ").append(direction).append(", a.id ").append(direction);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        if (artistId != null) {
+            query.setParameter("artistId", artistId);
+        }
+        if (title != null) {
+            query.setParameter("title", title);
+        }
+        if (afterId != null) {
+            query.setParameter("afterTitle", afterTitle);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
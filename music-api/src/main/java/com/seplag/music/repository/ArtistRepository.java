@@ -1,5 +1,6 @@
 package com.seplag.music.repository;
 
+import com.seplag.music.domain.dto.SearchHitRow;
 import com.seplag.music.domain.model.Artist;
 import com.seplag.music.domain.model.ArtistType;
 import org.springframework.data.domain.Page;
@@ -9,10 +10,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ArtistRepository extends JpaRepository<Artist, Long> {
+public interface ArtistRepository extends JpaRepository<Artist, Long>, ArtistRepositoryCustom {
 
     Optional<Artist> findByName(String name);
 
@@ -25,4 +27,13 @@ public interface ArtistRepository extends JpaRepository<Artist, Long> {
 
     @Query("SELECT a FROM Artist a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY a.name DESC")
     Page<Artist> findByNameOrderDesc(@Param("name") String name, Pageable pageable);
+
+    // Busca ranqueada por similaridade de trigramas (usa idx_artist_name_trgm)
+    @Query(value = "SELECT a.id AS id, a.name AS name, " +
+            "CAST(word_similarity(LOWER(:query), LOWER(a.name)) AS double precision) AS score " +
+            "FROM artist a " +
+            "WHERE LOWER(a.name) LIKE '%' || LOWER(:query) || '%' OR LOWER(:query) <% LOWER(a.name) " +
+            "ORDER BY score DESC, a.name ASC, a.id ASC " +
+            "LIMIT :limit", nativeQuery = true)
+    List<SearchHitRow> searchByName(@Param("query") String query, @Param("limit") int limit);
 }
\ No newline at end of file
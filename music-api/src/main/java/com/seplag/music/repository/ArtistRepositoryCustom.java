@@ -0,0 +1,16 @@
+package com.seplag.music.repository;
+
+import com.seplag.music.domain.model.Artist;
+import com.seplag.music.domain.model.ArtistType;
+
+import java.util.List;
+
+public interface ArtistRepositoryCustom {
+
+    /**
+     * Seleciona artistas ordenados por (name, id) a partir da posição do cursor.
+     * Filtros name e type são opcionais; afterName/afterId nulos indicam a primeira página.
+     */
+    List<Artist> findByKeyset(String name, ArtistType type, boolean desc,
+                              String afterName, Long afterId, int limit);
+}
@@ -0,0 +1,48 @@
+package com.seplag.music.repository;
+
+import com.seplag.music.domain.model.Artist;
+import com.seplag.music.domain.model.ArtistType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class ArtistRepositoryImpl implements ArtistRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Artist> findByKeyset(String name, ArtistType type, boolean desc,
+                                     String afterName, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT a FROM Artist a WHERE 1 = 1");
+        if (name != null) {
+            jpql.append(" AND LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+        }
+        if (type != null) {
+            jpql.append(" AND a.type = :type");
+        }
+        if (afterId != null) {
+            // Primeira condição delimita o range no índice (name, id); a segunda desempata pelo id
+            String cmp = desc ? "<" : ">";
+            jpql.append(" AND a.name ").append(cmp).append("= :afterName")
+                    .append(" AND (a.name ").append(cmp).append(" :afterName OR a.id ").append(cmp).append(" :afterId)");
+        }
+        String direction = desc ? "DESC" : "ASC";
+        jpql.append(" ORDER BY a.name ").append(direction).append(", a.id ").append(direction);
+
+        TypedQuery<Artist> query = entityManager.createQuery(jpql.toString(), Artist.class);
+        if (name != null) {
+            query.setParameter("name", name);
+        }
+        if (type != null) {
+            query.setParameter("type", type);
+        }
+        if (afterId != null) {
+            query.setParameter("afterName", afterName);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.seplag.music.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Contagem de referências dos objetos de capa (tabela cover_blob), via JDBC.
+ * Os UPDATEs travam a linha até o fim da transação: quem remove a última referência apaga o objeto
+ * antes do commit e um upload concorrente do mesmo conteúdo espera e volta a gravá-lo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CoverBlobRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserva uma referência (cria a linha se preciso).
+     * @return true se o objeto já está gravado no storage e o upload pode ser pulado
+     */
+    public boolean reserve(String objectName) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "INSERT INTO cover_blob (object_name, ref_count, stored) VALUES (:name, 1, FALSE) " +
+                        "ON CONFLICT (object_name) DO UPDATE SET ref_count = cover_blob.ref_count + 1 " +
+                        "RETURNING stored",
+                new MapSqlParameterSource("name", objectName), Boolean.class));
+    }
+
+    public void markStored(String objectName) {
+        jdbcTemplate.update("UPDATE cover_blob SET stored = TRUE WHERE object_name = :name",
+                new MapSqlParameterSource("name", objectName));
+    }
+
+    /**
+     * Registra um objeto novo já gravado (upload direto). false se o objeto já estava registrado.
+     */
+    public boolean register(String objectName) {
+        return jdbcTemplate.update(
+                "INSERT INTO cover_blob (object_name, ref_count, stored) VALUES (:name, 1, TRUE) " +
+                        "ON CONFLICT (object_name) DO NOTHING",
+                new MapSqlParameterSource("name", objectName)) > 0;
+    }
+
+    /**
+     * Remove uma referência; com zero a linha sai junto.
+     * @return referências restantes, ou -1 se o objeto não era contado (anterior à contagem)
+     */
+    public int release(String objectName) {
+        MapSqlParameterSource params = new MapSqlParameterSource("name", objectName);
+        List<Integer> remaining = jdbcTemplate.queryForList(
+                "UPDATE cover_blob SET ref_count = ref_count - 1 WHERE object_name = :name RETURNING ref_count",
+                params, Integer.class);
+        if (remaining.isEmpty()) {
+            return -1;
+        }
+        if (remaining.get(0) <= 0) {
+            jdbcTemplate.update("DELETE FROM cover_blob WHERE object_name = :name", params);
+            return 0;
+        }
+        return remaining.get(0);
+    }
+
+    public boolean isReferenced(String objectName) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM cover_blob WHERE object_name = :name AND ref_count > 0",
+                new MapSqlParameterSource("name", objectName), Integer.class).isEmpty();
+    }
+}
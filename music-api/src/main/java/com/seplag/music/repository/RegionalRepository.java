@@ -1,9 +1,12 @@
 package com.seplag.music.repository;
 
 import com.seplag.music.domain.model.Regional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,7 +14,18 @@ import java.util.List;
 @Repository
 public interface RegionalRepository extends JpaRepository<Regional, Integer> {
 
+    String QUERY_CACHE_REGION = "regional-query";
+
+    // Resultado (IDs) no cache de consultas; as entidades vêm da região "regional"
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     List<Regional> findByAtivoTrue();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     Page<Regional> findByAtivoTrue(Pageable pageable);
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.seplag.music.security;
 
+import com.seplag.music.config.AccessLogFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,33 +15,29 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final PublicPathMatcher PUBLIC_PATHS = new PublicPathMatcher(
+            "/api/v1/auth/register",
+            "/api/v1/auth/login",
+            "/api/v1/auth/refresh",
+            "/swagger",
+            "/v3/api-docs",
+            "/actuator/health",
+            "/actuator/prometheus");
+
     private final JwtProvider jwtProvider;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        String path = request.getRequestURI();
-        
-        // LOG ESTRATÉGICO: Verifique no seu terminal o que aparece aqui!
-        log.info("JWT Filter interceptando: {} {}", request.getMethod(), path);
-
-        // Verificação mais robusta para endpoints públicos
-        boolean isPublicEndpoint = path.contains("/api/v1/auth/register") ||
-                                   path.contains("/api/v1/auth/login") ||
-                                   path.contains("/api/v1/auth/refresh") ||
-                                   path.contains("/swagger") ||
-                                   path.contains("/v3/api-docs") ||
-                                   path.contains("/actuator");
-
-        if (isPublicEndpoint) {
-            log.info("Endpoint público detectado, ignorando validação JWT para: {}", path);
+        if (isPublicEndpoint(request.getRequestURI())) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -48,9 +45,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (jwt != null && jwtProvider.validateToken(jwt)) {
-                String username = jwtProvider.getUsernameFromToken(jwt);
-                String role = jwtProvider.getRoleFromToken(jwt);
+            // Um único parse (ou hit no cache) para validar e extrair usuário/role
+            Optional<JwtProvider.TokenClaims> claims = jwt != null ? jwtProvider.authenticate(jwt) : Optional.empty();
+
+            if (claims.isPresent()) {
+                String username = claims.get().username();
+                String role = claims.get().role();
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         username,
@@ -59,15 +59,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 );
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                // O contexto de segurança é limpo antes do fim do access log
+                request.setAttribute(AccessLogFilter.USER_ATTRIBUTE, username);
                 log.debug("Usuário autenticado via JWT: {}", username);
             }
         } catch (Exception ex) {
-            log.error("Erro ao processar JWT para o caminho {}: {}", path, ex.getMessage());
+            log.error("Erro ao processar JWT para o caminho {}: {}", request.getRequestURI(), ex.getMessage());
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Caminhos que não passam pela validação do JWT (mesmos liberados no SecurityConfig).
+     */
+    public static boolean isPublicEndpoint(String path) {
+        return PUBLIC_PATHS.matches(path);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
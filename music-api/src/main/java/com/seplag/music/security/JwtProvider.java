@@ -1,8 +1,22 @@
 package com.seplag.music.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,15 +25,24 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtProvider {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
@@ -29,7 +52,98 @@ public class JwtProvider {
     @Value("${app.jwt.refresh-expiration}")
     private long refreshTokenExpirationMs;
 
-    private SecretKey getSigningKey() {
+    // Tokens já verificados (chave = SHA-256 do token), expiram junto com o token
+    @Value("${app.jwt.claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    // Chave e parser são imutáveis: calculados uma vez no startup
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, TokenClaims> claimsCache;
+
+    // Custo do parse/verificação de assinatura (só nos misses do cache) e hits do cache
+    private Timer parseValidTimer;
+    private Timer parseInvalidTimer;
+    private Counter cacheHitCounter;
+
+    // Tokens inválidos viram contador por motivo; no log, no máximo um WARN (sem stack trace) por intervalo
+    @Value("${app.jwt.invalid-log-interval:60s}")
+    private Duration invalidLogInterval;
+    private final Map<String, Counter> invalidCounters = new ConcurrentHashMap<>();
+    private final AtomicLong nextInvalidLogAt = new AtomicLong();
+    private final AtomicLong invalidSinceLastLog = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        this.signingKey = buildSigningKey();
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.claimsCache = claimsCacheMaxSize > 0
+                ? Caffeine.newBuilder()
+                    .maximumSize(claimsCacheMaxSize)
+                    .expireAfter(new TokenExpiry())
+                    .build()
+                : null;
+
+        this.parseValidTimer = parseTimer("valid");
+        this.parseInvalidTimer = parseTimer("invalid");
+        this.cacheHitCounter = Counter.builder("music.jwt.claims.cache.hits")
+                .description("Tokens autenticados pelo cache, sem parse")
+                .register(meterRegistry);
+        Gauge.builder("music.jwt.claims.cache.size", this, JwtProvider::getClaimsCacheSize)
+                .register(meterRegistry);
+        this.nextInvalidLogAt.set(System.nanoTime());
+    }
+
+    private Timer parseTimer(String outcome) {
+        return Timer.builder("music.jwt.parse")
+                .description("Parse e verificação de assinatura do JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Conta o token inválido pelo motivo e registra um resumo se o intervalo do último aviso já passou.
+     * Tokens inválidos são esperados (expirados, clientes antigos, varreduras) e não justificam uma linha cada.
+     */
+    private void reportInvalid(Exception e) {
+        String reason = invalidReason(e);
+        invalidCounters.computeIfAbsent(reason, r -> Counter.builder("music.jwt.invalid")
+                        .description("Tokens JWT rejeitados, por motivo")
+                        .tag("reason", r)
+                        .register(meterRegistry))
+                .increment();
+        invalidSinceLastLog.incrementAndGet();
+
+        long now = System.nanoTime();
+        long next = nextInvalidLogAt.get();
+        if (now - next >= 0 && nextInvalidLogAt.compareAndSet(next, now + invalidLogInterval.toNanos())) {
+            log.warn("{} token(s) JWT inválido(s) desde o último aviso; último motivo: {} ({})",
+                    invalidSinceLastLog.getAndSet(0), reason, e.getMessage());
+        }
+    }
+
+    static String invalidReason(Exception e) {
+        if (e instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (e instanceof SecurityException) {
+            return "signature";
+        }
+        if (e instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        if (e instanceof UnsupportedJwtException) {
+            return "unsupported";
+        }
+        if (e instanceof IllegalArgumentException) {
+            return "empty";
+        }
+        return "invalid";
+    }
+
+    private SecretKey buildSigningKey() {
         try {
             byte[] keyBytes = Base64.getDecoder().decode(jwtSecret);
             return Keys.hmacShaKeyFor(keyBytes);
@@ -64,10 +178,42 @@ public class JwtProvider {
                 .claims(claims)
                 .issuedAt(now)
                 .expiration(expiration)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Valida o token e extrai usuário/role com um único parse.
+     * Tokens já verificados vêm do cache até expirarem.
+     * @return vazio se o token for inválido ou expirado
+     */
+    public Optional<TokenClaims> authenticate(String token) {
+        String key = claimsCache != null ? hash(token) : null;
+        if (key != null) {
+            TokenClaims cached = claimsCache.getIfPresent(key);
+            if (cached != null && !cached.isExpired()) {
+                cacheHitCounter.increment();
+                return Optional.of(cached);
+            }
+        }
+
+        TokenClaims claims;
+        long start = System.nanoTime();
+        try {
+            claims = TokenClaims.of(parseClaims(token));
+            parseValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (JwtException | IllegalArgumentException e) {
+            parseInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            reportInvalid(e);
+            return Optional.empty();
+        }
+
+        if (key != null && claims.expiresAtMs() > 0) {
+            claimsCache.put(key, claims);
+        }
+        return Optional.of(claims);
+    }
+
     public String getUsernameFromToken(String token) {
         return parseClaims(token).getSubject();
     }
@@ -82,20 +228,70 @@ public class JwtProvider {
             parseClaims(token);
             return true;
         } catch (Exception e) {
-            log.error("Erro ao validar token: ", e);
+            reportInvalid(e);
             return false;
         }
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public long getExpirationTimeMs() {
         return jwtExpirationMs;
     }
-}
\ No newline at end of file
+
+    public long getClaimsCacheSize() {
+        return claimsCache != null ? claimsCache.estimatedSize() : 0;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Dados do token já verificado, usados pelo filtro de autenticação.
+     */
+    public record TokenClaims(String username, String role, long expiresAtMs) {
+
+        static TokenClaims of(Claims claims) {
+            Object role = claims.get("role");
+            Date expiration = claims.getExpiration();
+            return new TokenClaims(
+                    claims.getSubject(),
+                    role != null ? role.toString() : null,
+                    expiration != null ? expiration.getTime() : 0);
+        }
+
+        boolean isExpired() {
+            return expiresAtMs <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Entrada do cache vive até o exp do token.
+     */
+    private static class TokenExpiry implements Expiry<String, TokenClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenClaims value, long currentTime) {
+            long remainingMs = value.expiresAtMs() - System.currentTimeMillis();
+            return Math.max(0, remainingMs) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
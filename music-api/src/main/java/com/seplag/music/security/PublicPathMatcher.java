@@ -0,0 +1,41 @@
+package com.seplag.music.security;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Classifica caminhos públicos (sem JWT) por prefixo, com a lista montada uma vez.
+ * Os prefixos ficam agrupados pelo primeiro segmento ("/api", "/swagger", ...): um caminho protegido
+ * é descartado comparando só o início, sem varrer a URI inteira para cada padrão.
+ */
+public final class PublicPathMatcher {
+
+    private final String[] prefixes;
+
+    public PublicPathMatcher(String... prefixes) {
+        // Ordenados: prefixos com o mesmo início ficam contíguos e a varredura para no primeiro que passar
+        this.prefixes = Arrays.stream(prefixes)
+                .sorted(Comparator.naturalOrder())
+                .toArray(String[]::new);
+    }
+
+    public boolean matches(String path) {
+        if (path == null || path.isEmpty()) {
+            return false;
+        }
+        char first = path.length() > 1 ? path.charAt(1) : 0;
+        for (String prefix : prefixes) {
+            char prefixFirst = prefix.charAt(1);
+            if (prefixFirst < first) {
+                continue;
+            }
+            if (prefixFirst > first) {
+                return false;
+            }
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
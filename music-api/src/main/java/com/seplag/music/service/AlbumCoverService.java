@@ -1,54 +1,105 @@
 package com.seplag.music.service;
 
+import com.seplag.music.config.CacheConfig;
+import com.seplag.music.config.MetricsConfig;
 import com.seplag.music.domain.dto.AlbumCoverDTO;
 import com.seplag.music.domain.dto.AlbumCoverPresignedDTO;
-import com.seplag.music.domain.model.Album;
+import com.seplag.music.domain.dto.CoverUploadConfirmDTO;
+import com.seplag.music.domain.dto.CoverUploadRequestDTO;
+import com.seplag.music.domain.dto.CoverUploadTicketDTO;
 import com.seplag.music.domain.model.AlbumCover;
 import com.seplag.music.exception.BusinessException;
 import com.seplag.music.repository.AlbumCoverRepository;
 import com.seplag.music.repository.AlbumRepository;
+import com.seplag.music.repository.CoverBlobRepository;
+import io.micrometer.core.annotation.Timed;
+import io.minio.StatObjectResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AlbumCoverService {
 
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private static final Pattern EXTENSION_PATTERN = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+    private static final Pattern OBJECT_NAME_PATTERN =
+            Pattern.compile("albums/\\d+/[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.[A-Za-z0-9]{1,10}");
+
     private final AlbumCoverRepository albumCoverRepository;
     private final AlbumRepository albumRepository;
     private final StorageService storageService;
+    private final CoverUrlResolver coverUrlResolver;
+    private final TransactionTemplate transactionTemplate;
+    private final CoverDerivativeService coverDerivativeService;
+    private final ChangeNotificationService changeNotificationService;
+    private final ContentAddressedCoverStore contentStore;
+    private final CoverBlobRepository coverBlobRepository;
+
+    @Value("${minio.upload.presigned-put-expiry:15m}")
+    private Duration presignedPutExpiry;
+
+    // Uploads até este tamanho ficam em memória enquanto o hash é calculado; acima vão para arquivo temporário
+    @Value("${app.covers.spool.memory-threshold:1MB}")
+    private DataSize spoolMemoryThreshold;
 
     public AlbumCoverService(AlbumCoverRepository albumCoverRepository,
                             AlbumRepository albumRepository,
-                            StorageService storageService) {
+                            StorageService storageService,
+                            CoverUrlResolver coverUrlResolver,
+                            TransactionTemplate transactionTemplate,
+                            CoverDerivativeService coverDerivativeService,
+                            ChangeNotificationService changeNotificationService,
+                            ContentAddressedCoverStore contentStore,
+                            CoverBlobRepository coverBlobRepository) {
         this.albumCoverRepository = albumCoverRepository;
         this.albumRepository = albumRepository;
         this.storageService = storageService;
+        this.coverUrlResolver = coverUrlResolver;
+        this.transactionTemplate = transactionTemplate;
+        this.coverDerivativeService = coverDerivativeService;
+        this.changeNotificationService = changeNotificationService;
+        this.contentStore = contentStore;
+        this.coverBlobRepository = coverBlobRepository;
     }
 
     /**
-     * Faz upload de uma capa para um álbum
+     * Faz upload de uma capa para um álbum.
+     * Sem transação: a conexão com o banco não fica presa enquanto o arquivo vai ao storage.
      */
-    @Transactional
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
     public AlbumCoverPresignedDTO uploadCover(Long albumId, MultipartFile file) {
         log.info("Iniciando upload de capa para álbum ID: {}", albumId);
 
         // Valida se o álbum existe
-        Album album = albumRepository.findById(albumId)
-                .orElseThrow(() -> BusinessException.notFound("Álbum não encontrado com ID: " + albumId));
+        if (!albumRepository.existsById(albumId)) {
+            throw BusinessException.notFound("Álbum não encontrado com ID: " + albumId);
+        }
 
         // Valida o arquivo
         if (file.isEmpty()) {
             throw BusinessException.badRequest("Arquivo não pode estar vazio");
         }
 
-        if (file.getSize() > 10 * 1024 * 1024) { // 10MB
+        if (file.getSize() > MAX_FILE_SIZE) {
             throw BusinessException.badRequest("Arquivo não pode exceder 10MB");
         }
 
@@ -57,49 +108,129 @@ public class AlbumCoverService {
             throw BusinessException.badRequest("Apenas arquivos de imagem são permitidos");
         }
 
-        try {
-            // Gera nome único para o arquivo
-            String objectName = generateObjectName(albumId, file.getOriginalFilename());
-
-            // Faz upload para MinIO
-            storageService.uploadFile(file, objectName);
-
-            // Se é a primeira capa, marca como primária
-            boolean isPrimary = albumCoverRepository.countByAlbumId(albumId) == 0;
-
-            // Salva registro no banco
-            AlbumCover cover = AlbumCover.builder()
-                    .album(album)
-                    .fileName(file.getOriginalFilename())
-                    .objectName(objectName)
-                    .contentType(contentType)
-                    .fileSize(file.getSize())
-                    .isPrimary(isPrimary)
-                    .build();
+        try (InputStream is = file.getInputStream()) {
+            return storeCover(albumId, is, contentType, file.getOriginalFilename());
+        } catch (IOException e) {
+            log.error("Erro ao ler arquivo de capa: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao fazer upload de capa: " + e.getMessage());
+        }
+    }
 
-            AlbumCover saved = albumCoverRepository.save(cover);
+    /**
+     * Faz upload de uma capa lendo o corpo da requisição, sem buffer do arquivo inteiro em memória.
+     * Tamanho, checksum e assinatura de imagem são verificados durante a leitura.
+     * Não mantém transação aberta enquanto o upload trafega.
+     * @param contentLength tamanho declarado (Content-Length) ou -1 se desconhecido (chunked)
+     */
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
+    public AlbumCoverPresignedDTO uploadCoverStream(Long albumId, InputStream body, long contentLength,
+                                                    String contentType, String fileName) {
+        log.info("Iniciando upload (streaming) de capa para álbum ID: {}", albumId);
 
-            // Gera presigned URL
-            String presignedUrl = storageService.getPresignedUrl(objectName);
+        if (!albumRepository.existsById(albumId)) {
+            throw BusinessException.notFound("Álbum não encontrado com ID: " + albumId);
+        }
 
-            log.info("Capa enviada com sucesso para álbum ID: {}", albumId);
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw BusinessException.badRequest("Apenas arquivos de imagem são permitidos");
+        }
 
-            return AlbumCoverPresignedDTO.builder()
-                    .id(saved.getId())
-                    .albumId(saved.getAlbum().getId())
-                    .fileName(saved.getFileName())
-                    .contentType(saved.getContentType())
-                    .fileSize(saved.getFileSize())
-                    .isPrimary(saved.getIsPrimary())
-                    .presignedUrl(presignedUrl)
-                    .createdAt(saved.getCreatedAt())
-                    .build();
+        // Rejeita antes de ler quando o tamanho declarado já excede o limite
+        if (contentLength > MAX_FILE_SIZE) {
+            throw BusinessException.badRequest("Arquivo não pode exceder 10MB");
+        }
 
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Erro ao fazer upload de capa: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao fazer upload de capa: " + e.getMessage());
+        return storeCover(albumId, body, contentType, fileName);
+    }
+
+    /**
+     * Fase 1 do upload direto: gera uma URL presigned de PUT para um objectName novo em albums/{albumId}/.
+     * Os bytes vão do cliente direto ao storage, sem passar pela API.
+     */
+    @Transactional(readOnly = true)
+    public CoverUploadTicketDTO createUploadTicket(Long albumId, CoverUploadRequestDTO request) {
+        if (!albumRepository.existsById(albumId)) {
+            throw BusinessException.notFound("Álbum não encontrado com ID: " + albumId);
+        }
+
+        if (!request.getContentType().startsWith("image/")) {
+            throw BusinessException.badRequest("Apenas arquivos de imagem são permitidos");
+        }
+
+        // Tamanho declarado; o real é conferido na confirmação
+        if (request.getFileSize() > MAX_FILE_SIZE) {
+            throw BusinessException.badRequest("Arquivo não pode exceder 10MB");
+        }
+
+        String objectName = generateObjectName(albumId, request.getFileName());
+        int expirySeconds = (int) presignedPutExpiry.toSeconds();
+        String uploadUrl = storageService.getPresignedUploadUrl(objectName, expirySeconds);
+
+        log.info("URL de upload direto gerada para álbum ID: {} ({})", albumId, objectName);
+
+        return CoverUploadTicketDTO.builder()
+                .albumId(albumId)
+                .objectName(objectName)
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .contentType(request.getContentType())
+                .maxFileSize(MAX_FILE_SIZE)
+                .expiresAt(LocalDateTime.now().plusSeconds(expirySeconds))
+                .build();
+    }
+
+    /**
+     * Fase 2 do upload direto: lê o objeto enviado uma vez, pelo mesmo caminho dos uploads pela API
+     * (tamanho, assinatura e SHA-256 conferidos durante a leitura), grava a capa em covers/{aa}/{sha256}
+     * e remove o objeto de upload. A URL presigned continua válida até expirar, mas só alcança o objeto de upload:
+     * um PUT depois da confirmação não altera a capa registrada.
+     * Sem transação enquanto os bytes trafegam; objetos recusados são removidos do storage.
+     */
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
+    public AlbumCoverPresignedDTO confirmUpload(Long albumId, CoverUploadConfirmDTO request) {
+        if (!albumRepository.existsById(albumId)) {
+            throw BusinessException.notFound("Álbum não encontrado com ID: " + albumId);
+        }
+
+        String objectName = request.getObjectName();
+        if (!isObjectNameOfAlbum(albumId, objectName)) {
+            throw BusinessException.badRequest("objectName não pertence ao álbum informado");
+        }
+
+        // Registro atômico do objeto de upload enquanto é lido: duas confirmações concorrentes não criam duas capas
+        if (!coverBlobRepository.register(objectName)) {
+            throw BusinessException.badRequest("Upload já confirmado para este objectName");
+        }
+        try {
+            StatObjectResponse stat = storageService.statFile(objectName)
+                    .orElseThrow(() -> BusinessException.badRequest("Arquivo não encontrado no storage; envie o arquivo antes de confirmar"));
+
+            String rejection = validateUploadedObject(stat);
+            if (rejection != null) {
+                storageService.deleteFile(objectName);
+                throw BusinessException.badRequest(rejection);
+            }
+
+            String fileName = request.getFileName() != null
+                    ? request.getFileName()
+                    : objectName.substring(objectName.lastIndexOf('/') + 1);
+            AlbumCoverPresignedDTO saved;
+            try (InputStream in = storageService.downloadFile(objectName)) {
+                saved = storeCover(albumId, in, stat.contentType(), fileName);
+            } catch (BusinessException e) {
+                // Conteúdo recusado na leitura (assinatura ou tamanho real)
+                storageService.deleteFile(objectName);
+                throw e;
+            } catch (IOException e) {
+                throw new RuntimeException("Erro ao ler upload direto: " + e.getMessage(), e);
+            }
+
+            // A capa já está no endereço por conteúdo; o objeto de upload não é mais usado
+            storageService.deleteFile(objectName);
+            log.info("Upload direto confirmado para álbum ID: {} ({} bytes)", albumId, saved.getFileSize());
+            return saved;
+        } finally {
+            coverBlobRepository.release(objectName);
         }
     }
 
@@ -116,10 +247,7 @@ public class AlbumCoverService {
         }
 
         List<AlbumCover> covers = albumCoverRepository.findByAlbumIdOrderByCreatedAtDesc(albumId);
-
-        return covers.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(covers);
     }
 
     /**
@@ -139,6 +267,7 @@ public class AlbumCoverService {
      * Deleta uma capa específica
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
     public void deleteCover(Long albumId, Long coverId) {
         log.info("Deletando capa ID: {} do álbum ID: {}", coverId, albumId);
 
@@ -151,8 +280,8 @@ public class AlbumCoverService {
         }
 
         try {
-            // Deleta do MinIO
-            storageService.deleteFile(cover.getObjectName());
+            // Deleta do MinIO (original e variantes) só se nenhuma outra capa usa o mesmo conteúdo
+            deleteObjectsIfUnreferenced(cover);
 
             // Se era a capa primária, marca a próxima como primária
             if (cover.getIsPrimary()) {
@@ -168,6 +297,7 @@ public class AlbumCoverService {
 
             // Deleta do banco
             albumCoverRepository.delete(cover);
+            coversChanged(albumId);
 
             log.info("Capa deletada com sucesso: {}", coverId);
 
@@ -181,6 +311,7 @@ public class AlbumCoverService {
      * Deleta todas as capas de um álbum
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
     public void deleteAllCoversFromAlbum(Long albumId) {
         log.info("Deletando todas as capas do álbum ID: {}", albumId);
 
@@ -188,13 +319,16 @@ public class AlbumCoverService {
 
         covers.forEach(cover -> {
             try {
-                storageService.deleteFile(cover.getObjectName());
+                deleteObjectsIfUnreferenced(cover);
                 albumCoverRepository.delete(cover);
             } catch (Exception e) {
                 log.error("Erro ao deletar capa ID: {}: {}", cover.getId(), e.getMessage());
             }
         });
 
+        if (!covers.isEmpty()) {
+            coversChanged(albumId);
+        }
         log.info("Todas as capas do álbum ID: {} foram deletadas", albumId);
     }
 
@@ -202,6 +336,7 @@ public class AlbumCoverService {
      * Define uma capa como primária
      */
     @Transactional
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
     public AlbumCoverDTO setPrimaryCover(Long albumId, Long coverId) {
         log.info("Definindo capa ID: {} como primária para álbum ID: {}", coverId, albumId);
 
@@ -222,10 +357,133 @@ public class AlbumCoverService {
         // Define nova primária
         cover.setIsPrimary(true);
         AlbumCover updated = albumCoverRepository.save(cover);
+        coversChanged(albumId);
 
         return convertToDTO(updated);
     }
 
+    /**
+     * Lê o conteúdo validando durante a leitura, grava no storage endereçado pelo SHA-256
+     * (ou reaproveita o objeto já existente) e grava o registro da capa.
+     */
+    private AlbumCoverPresignedDTO storeCover(Long albumId, InputStream in, String contentType, String fileName) {
+        CoverUploadStream upload = new CoverUploadStream(in, MAX_FILE_SIZE);
+        try (CoverSpool spool = CoverSpool.copyOf(upload, (int) spoolMemoryThreshold.toBytes())) {
+            upload.verifyComplete();
+            String checksum = upload.getChecksum();
+
+            ContentAddressedCoverStore.Stored stored = contentStore.store(spool, checksum, contentType);
+            String objectName = stored.objectName();
+
+            AlbumCover saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    // Se é a primeira capa, marca como primária
+                    boolean isPrimary = albumCoverRepository.countByAlbumId(albumId) == 0;
+
+                    // Salva registro no banco
+                    AlbumCover cover = AlbumCover.builder()
+                            .album(albumRepository.getReferenceById(albumId))
+                            .fileName(fileName)
+                            .objectName(objectName)
+                            .contentType(contentType)
+                            .fileSize(spool.size())
+                            .checksum(checksum)
+                            .isPrimary(isPrimary)
+                            .build();
+
+                    AlbumCover savedCover = albumCoverRepository.save(cover);
+                    // Miniaturas em segundo plano, depois do commit (conteúdo repetido reaproveita as existentes)
+                    coverDerivativeService.scheduleAfterCommit(albumId, savedCover.getId(), objectName);
+                    coversChanged(albumId);
+                    return savedCover;
+                });
+            } catch (RuntimeException e) {
+                contentStore.abandon(objectName);
+                throw e;
+            }
+
+            // Gera presigned URL
+            String presignedUrl = storageService.getPresignedUrl(objectName);
+
+            log.info("Capa {} para álbum ID: {} ({} bytes)", stored.deduplicated() ? "reaproveitada" : "enviada",
+                    albumId, saved.getFileSize());
+
+            return AlbumCoverPresignedDTO.builder()
+                    .id(saved.getId())
+                    .albumId(albumId)
+                    .fileName(saved.getFileName())
+                    .contentType(saved.getContentType())
+                    .fileSize(saved.getFileSize())
+                    .checksum(saved.getChecksum())
+                    .isPrimary(saved.getIsPrimary())
+                    .presignedUrl(presignedUrl)
+                    .createdAt(saved.getCreatedAt())
+                    .build();
+
+        } catch (CoverUploadStream.RejectedException e) {
+            throw BusinessException.badRequest(e.getMessage());
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro ao fazer upload de capa: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao fazer upload de capa: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devolve as referências das capas do álbum ao storage, antes de o álbum ser removido
+     * (as linhas de album_cover saem em cascata). Deve rodar na transação da remoção.
+     */
+    @Transactional
+    public void releaseCoverObjects(Long albumId) {
+        albumCoverRepository.findByAlbumId(albumId).forEach(this::deleteObjectsIfUnreferenced);
+    }
+
+    /**
+     * Remove a referência da capa ao objeto; com a última, apaga original e variantes do storage
+     * (dentro da transação, com a contagem travada).
+     */
+    private void deleteObjectsIfUnreferenced(AlbumCover cover) {
+        if (contentStore.releaseReference(cover.getObjectName())) {
+            coverDerivativeService.deleteVariantObjects(cover.getId());
+            storageService.deleteFile(cover.getObjectName());
+        } else {
+            log.info("Objeto {} ainda usado por outras capas; mantido no storage", cover.getObjectName());
+        }
+    }
+
+    private void coversChanged(Long albumId) {
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, albumId,
+                ChangeNotificationService.Op.COVERS);
+    }
+
+    /**
+     * Confere tamanho e tipo declarados do objeto enviado direto ao storage, antes de lê-lo.
+     * A assinatura e o tamanho real são conferidos na leitura.
+     * Retorna o motivo da recusa ou null se válido.
+     */
+    private String validateUploadedObject(StatObjectResponse stat) {
+        if (stat.size() <= 0) {
+            return "Arquivo não pode estar vazio";
+        }
+        if (stat.size() > MAX_FILE_SIZE) {
+            return "Arquivo não pode exceder 10MB";
+        }
+        if (stat.contentType() == null || !stat.contentType().startsWith("image/")) {
+            return "Apenas arquivos de imagem são permitidos";
+        }
+        return null;
+    }
+
+    /**
+     * Aceita somente nomes gerados por generateObjectName para o próprio álbum.
+     */
+    private boolean isObjectNameOfAlbum(Long albumId, String objectName) {
+        return OBJECT_NAME_PATTERN.matcher(objectName).matches()
+                && objectName.startsWith("albums/" + albumId + "/");
+    }
+
     /**
      * Gera um nome único para o arquivo no MinIO
      */
@@ -233,22 +491,49 @@ public class AlbumCoverService {
         String extension = originalFilename != null && originalFilename.contains(".")
                 ? originalFilename.substring(originalFilename.lastIndexOf("."))
                 : ".jpg";
+        if (!EXTENSION_PATTERN.matcher(extension).matches()) {
+            extension = ".jpg";
+        }
 
         return String.format("albums/%d/%s%s", albumId, UUID.randomUUID(), extension);
     }
 
     /**
-     * Converte AlbumCover para DTO com presigned URL
+     * Converte AlbumCover para DTO com presigned URL (ou pública se a assinatura não ficar pronta no prazo)
      */
     private AlbumCoverDTO convertToDTO(AlbumCover cover) {
-        String presignedUrl = storageService.getPresignedUrl(cover.getObjectName());
+        return convertToDTOs(List.of(cover)).get(0);
+    }
+
+    /**
+     * Converte em lote: variantes de todas as capas em uma consulta e URLs resolvidas juntas
+     */
+    private List<AlbumCoverDTO> convertToDTOs(List<AlbumCover> covers) {
+        Map<Long, Map<String, String>> variantNames = coverDerivativeService.variantObjectNames(
+                covers.stream().map(AlbumCover::getId).toList());
+
+        List<String> objectNames = new ArrayList<>();
+        covers.forEach(cover -> objectNames.add(cover.getObjectName()));
+        variantNames.values().forEach(names -> objectNames.addAll(names.values()));
+        Map<String, String> urls = coverUrlResolver.resolveAll(objectNames);
+
+        return covers.stream()
+                .map(cover -> {
+                    AlbumCoverDTO dto = convertToDTO(cover, urls.get(cover.getObjectName()));
+                    dto.setVariants(CoverDerivativeService.toUrls(variantNames.get(cover.getId()), urls));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
 
+    private AlbumCoverDTO convertToDTO(AlbumCover cover, String presignedUrl) {
         return AlbumCoverDTO.builder()
                 .id(cover.getId())
                 .albumId(cover.getAlbum().getId())
                 .fileName(cover.getFileName())
                 .contentType(cover.getContentType())
                 .fileSize(cover.getFileSize())
+                .checksum(cover.getChecksum())
                 .isPrimary(cover.getIsPrimary())
                 .presignedUrl(presignedUrl)
                 .createdAt(cover.getCreatedAt())
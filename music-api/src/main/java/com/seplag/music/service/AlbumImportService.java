@@ -0,0 +1,312 @@
+package com.seplag.music.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seplag.music.domain.dto.AlbumImportRowDTO;
+import com.seplag.music.domain.dto.AlbumNotificationDTO;
+import com.seplag.music.domain.dto.ImportResultDTO;
+import com.seplag.music.domain.model.ArtistType;
+import com.seplag.music.exception.BusinessException;
+import com.seplag.music.repository.AlbumBulkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importação em lote de álbuns (CSV ou NDJSON) com artistas por nome.
+ * O arquivo é lido linha a linha e gravado em blocos, cada bloco na sua própria transação,
+ * com inserts em batch via JDBC. Erros de validação são reportados por linha.
+ *
+ * CSV: cabeçalho com title, releaseYear, artists (nomes separados por ';') e opcional artistType.
+ * NDJSON: {"title": "...", "releaseYear": 2020, "artists": ["..."], "artistType": "BANDA"}
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final AlbumBulkRepository albumBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChangeNotificationService changeNotificationService;
+
+    public ImportResultDTO importAlbums(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw BusinessException.badRequest("Arquivo não pode estar vazio");
+        }
+
+        boolean csv = isCsv(file);
+        ImportState state = new ImportState();
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+
+            Map<String, Integer> header = null;
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+
+                state.totalRows++;
+                try {
+                    AlbumImportRowDTO row = csv ? parseCsvRow(line, header) : parseJsonRow(line);
+                    validate(row);
+                    chunk.add(new PendingRow(lineNumber, row));
+                } catch (BusinessException e) {
+                    state.fail(lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, state);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, state);
+            }
+        } catch (IOException e) {
+            log.error("Erro ao ler arquivo de importação: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao ler arquivo de importação: " + e.getMessage());
+        }
+
+        log.info("Importação concluída: {} linhas, {} álbuns, {} falhas, {} artistas criados",
+                state.totalRows, state.imported, state.failed, state.artistsCreated);
+
+        // Uma única notificação resumida em vez de uma por álbum
+        if (state.imported > 0) {
+            messagingTemplate.convertAndSend("/topic/albums", new AlbumNotificationDTO(
+                    null,
+                    null,
+                    "Importação concluída: " + state.imported + " álbuns criados"
+            ));
+            // Em /topic/changes, um pedido de recarga no lugar de milhares de álbuns criados
+            changeNotificationService.requestResync();
+        }
+
+        state.errors.sort(Comparator.comparingInt(ImportResultDTO.RowError::getLine));
+
+        return ImportResultDTO.builder()
+                .totalRows(state.totalRows)
+                .imported(state.imported)
+                .failed(state.failed)
+                .artistsCreated(state.artistsCreated)
+                .errors(state.errors)
+                .build();
+    }
+
+    private void writeChunk(List<PendingRow> chunk, ImportState state) {
+        try {
+            int created = transactionTemplate.execute(status -> {
+                // Resolve artistas do bloco inteiro de uma vez
+                Map<String, ArtistType> artistTypes = new LinkedHashMap<>();
+                for (PendingRow pending : chunk) {
+                    ArtistType type = pending.row().getArtistType() != null ? pending.row().getArtistType() : ArtistType.SOLO;
+                    pending.row().getArtists().forEach(name -> artistTypes.putIfAbsent(name, type));
+                }
+
+                Map<String, Long> artistIds = albumBulkRepository.findArtistIdsByName(artistTypes.keySet());
+                Map<String, ArtistType> missing = new HashMap<>(artistTypes);
+                missing.keySet().removeAll(artistIds.keySet());
+                int artistsCreated = albumBulkRepository.insertArtists(missing);
+                artistIds.putAll(albumBulkRepository.findArtistIdsByName(missing.keySet()));
+
+                List<Long> albumIds = albumBulkRepository.reserveAlbumIds(chunk.size());
+                List<String> titles = new ArrayList<>(chunk.size());
+                List<Integer> years = new ArrayList<>(chunk.size());
+                List<long[]> links = new ArrayList<>();
+                for (int i = 0; i < chunk.size(); i++) {
+                    AlbumImportRowDTO row = chunk.get(i).row();
+                    titles.add(row.getTitle());
+                    years.add(row.getReleaseYear());
+                    for (String name : row.getArtists()) {
+                        links.add(new long[]{artistIds.get(name), albumIds.get(i)});
+                    }
+                }
+
+                albumBulkRepository.insertAlbums(albumIds, titles, years);
+                albumBulkRepository.insertArtistAlbumLinks(links);
+                return artistsCreated;
+            });
+
+            state.imported += chunk.size();
+            state.artistsCreated += created;
+        } catch (Exception e) {
+            log.error("Erro ao gravar bloco de importação: {}", e.getMessage(), e);
+            chunk.forEach(pending -> state.fail(pending.line(), "Erro ao gravar bloco: " + e.getMessage()));
+        }
+    }
+
+    private boolean isCsv(MultipartFile file) {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.contains("ndjson")) {
+            return false;
+        }
+        if (name.endsWith(".csv") || contentType.contains("csv")) {
+            return true;
+        }
+        throw BusinessException.badRequest("Formato não suportado. Envie um arquivo .csv ou .ndjson");
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = parseCsvLine(line);
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("title") || !header.containsKey("releaseyear")) {
+            throw BusinessException.badRequest("Cabeçalho CSV deve conter as colunas title e releaseYear");
+        }
+        return header;
+    }
+
+    private AlbumImportRowDTO parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> values = parseCsvLine(line);
+
+        String year = column(values, header, "releaseyear");
+        String artists = column(values, header, "artists");
+        String type = column(values, header, "artisttype");
+
+        AlbumImportRowDTO row = new AlbumImportRowDTO();
+        row.setTitle(column(values, header, "title"));
+        try {
+            row.setReleaseYear(year != null && !year.isBlank() ? Integer.valueOf(year.trim()) : null);
+        } catch (NumberFormatException e) {
+            throw BusinessException.badRequest("releaseYear inválido: " + year);
+        }
+        row.setArtists(artists != null && !artists.isBlank() ? Arrays.asList(artists.split(";")) : List.of());
+        row.setArtistType(parseArtistType(type));
+        return row;
+    }
+
+    private AlbumImportRowDTO parseJsonRow(String line) {
+        try {
+            AlbumImportRowDTO row = objectMapper.readValue(line, AlbumImportRowDTO.class);
+            if (row.getArtists() == null) {
+                row.setArtists(List.of());
+            }
+            return row;
+        } catch (JsonProcessingException e) {
+            throw BusinessException.badRequest("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    private void validate(AlbumImportRowDTO row) {
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            throw BusinessException.badRequest("Título do álbum é obrigatório");
+        }
+        if (row.getTitle().length() > 200) {
+            throw BusinessException.badRequest("Título do álbum excede 200 caracteres");
+        }
+        if (row.getReleaseYear() == null) {
+            throw BusinessException.badRequest("releaseYear é obrigatório");
+        }
+        row.setTitle(row.getTitle().trim());
+
+        List<String> names = row.getArtists().stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+        if (names.stream().anyMatch(name -> name.length() > 200)) {
+            throw BusinessException.badRequest("Nome de artista excede 200 caracteres");
+        }
+        row.setArtists(names);
+    }
+
+    private ArtistType parseArtistType(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return ArtistType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.badRequest("artistType inválido (use SOLO ou BANDA): " + value);
+        }
+    }
+
+    private String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Separa uma linha CSV por vírgula, respeitando campos entre aspas ("" escapa aspas).
+     */
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record PendingRow(int line, AlbumImportRowDTO row) {
+    }
+
+    private static class ImportState {
+        private int totalRows;
+        private int imported;
+        private int failed;
+        private int artistsCreated;
+        private final List<ImportResultDTO.RowError> errors = new ArrayList<>();
+
+        private void fail(int line, String message) {
+            failed++;
+            // limita o relatório para não crescer com o arquivo
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResultDTO.RowError(line, message));
+            }
+        }
+    }
+}
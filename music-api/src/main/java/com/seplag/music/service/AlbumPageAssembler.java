@@ -0,0 +1,114 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.dto.AlbumArtistRowDTO;
+import com.seplag.music.domain.dto.AlbumCoverDTO;
+import com.seplag.music.domain.dto.AlbumCoverRowDTO;
+import com.seplag.music.domain.dto.AlbumDTO;
+import com.seplag.music.domain.dto.AlbumRowDTO;
+import com.seplag.music.domain.dto.ArtistDTO;
+import com.seplag.music.repository.AlbumRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monta páginas de AlbumDTO a partir de uma página de IDs.
+ * Carrega álbuns, artistas, capas e variantes das capas em quatro consultas por IDs (limitadas ao tamanho da página)
+ * e monta os DTOs direto das linhas de projeção, sem materializar entidades.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlbumPageAssembler {
+
+    private final AlbumRepository albumRepository;
+    private final CoverUrlResolver coverUrlResolver;
+    private final CoverDerivativeService coverDerivativeService;
+
+    public Page<AlbumDTO> assemble(Page<Long> idPage) {
+        return new PageImpl<>(assemble(idPage.getContent()), idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    /**
+     * Monta os DTOs na mesma ordem da lista de IDs.
+     */
+    public List<AlbumDTO> assemble(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, AlbumRowDTO> rows = new HashMap<>();
+        for (AlbumRowDTO row : albumRepository.findRowsByIdIn(ids)) {
+            rows.put(row.getId(), row);
+        }
+
+        Map<Long, Set<ArtistDTO>> artistsByAlbum = new HashMap<>();
+        for (AlbumArtistRowDTO row : albumRepository.findArtistRowsByAlbumIdIn(ids)) {
+            artistsByAlbum.computeIfAbsent(row.getAlbumId(), k -> new LinkedHashSet<>())
+                    .add(ArtistDTO.builder()
+                            .id(row.getArtistId())
+                            .name(row.getName())
+                            .type(row.getType())
+                            .createdAt(row.getCreatedAt())
+                            .build());
+        }
+
+        // Resolve as URLs de todas as capas (e variantes) da página em um único lote
+        List<AlbumCoverRowDTO> coverRows = albumRepository.findCoverRowsByAlbumIdIn(ids);
+        Map<Long, Map<String, String>> variantNames = coverDerivativeService.variantObjectNames(
+                coverRows.stream().map(AlbumCoverRowDTO::getId).toList());
+        List<String> objectNames = new ArrayList<>();
+        coverRows.forEach(row -> objectNames.add(objectNameOf(row)));
+        variantNames.values().forEach(names -> objectNames.addAll(names.values()));
+        Map<String, String> urls = coverUrlResolver.resolveAll(objectNames);
+
+        Map<Long, Set<AlbumCoverDTO>> coversByAlbum = new HashMap<>();
+        for (AlbumCoverRowDTO row : coverRows) {
+            coversByAlbum.computeIfAbsent(row.getAlbumId(), k -> new LinkedHashSet<>())
+                    .add(AlbumCoverDTO.builder()
+                            .id(row.getId())
+                            .albumId(row.getAlbumId())
+                            .fileName(row.getFileName())
+                            .objectName(row.getObjectName())
+                            .contentType(row.getContentType())
+                            .fileSize(row.getFileSize())
+                            .isPrimary(row.getIsPrimary())
+                            .createdAt(row.getCreatedAt())
+                            // URL preenchida antes de entrar no Set (hashCode depende dela)
+                            .url(urls.get(objectNameOf(row)))
+                            .variants(CoverDerivativeService.toUrls(variantNames.get(row.getId()), urls))
+                            .build());
+        }
+
+        // Mantém a ordem da página de IDs
+        List<AlbumDTO> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AlbumRowDTO row = rows.get(id);
+            if (row == null) {
+                // removido entre as duas consultas
+                continue;
+            }
+            content.add(AlbumDTO.builder()
+                    .id(row.getId())
+                    .title(row.getTitle())
+                    .releaseYear(row.getReleaseYear())
+                    .createdAt(row.getCreatedAt())
+                    .artists(artistsByAlbum.getOrDefault(id, new LinkedHashSet<>()))
+                    .covers(coversByAlbum.getOrDefault(id, new LinkedHashSet<>()))
+                    .build());
+        }
+
+        return content;
+    }
+
+    private String objectNameOf(AlbumCoverRowDTO row) {
+        return row.getObjectName() != null ? row.getObjectName() : row.getFileName();
+    }
+}
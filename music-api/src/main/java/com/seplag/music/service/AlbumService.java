@@ -1,15 +1,23 @@
 package com.seplag.music.service;
 
+import com.seplag.music.config.CacheConfig;
+import com.seplag.music.config.MetricsConfig;
+import com.seplag.music.domain.dto.AlbumCoverDTO;
 import com.seplag.music.domain.dto.AlbumCreateUpdateDTO;
+import com.seplag.music.domain.dto.CursorPageDTO;
 import com.seplag.music.domain.dto.AlbumDTO;
 import com.seplag.music.domain.dto.AlbumMapper;
-import com.seplag.music.domain.dto.AlbumCoverDTO;
 import com.seplag.music.domain.dto.AlbumNotificationDTO;
 import com.seplag.music.domain.model.Album;
 import com.seplag.music.domain.model.Artist;
 import com.seplag.music.repository.AlbumRepository;
 import com.seplag.music.repository.ArtistRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -18,68 +26,103 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AlbumService {
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     private final AlbumRepository albumRepository;
     private final ArtistRepository artistRepository;
     private final AlbumMapper albumMapper;
     private final SimpMessagingTemplate messagingTemplate;
-    private final StorageService storageService; // injetei o StorageService aqui
+    private final CoverUrlResolver coverUrlResolver;
+    private final CoverDerivativeService coverDerivativeService;
+    private final AlbumCoverService albumCoverService;
+    private final AlbumPageAssembler albumPageAssembler;
+    private final ChangeNotificationService changeNotificationService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final CacheManager cacheManager;
+
+    // Mensagem por álbum criado em /topic/albums, mantida para clientes antigos (os novos usam /topic/changes)
+    @Value("${app.notifications.legacy-album-topic:true}")
+    private boolean legacyAlbumTopic;
 
     public AlbumDTO create(AlbumCreateUpdateDTO dto) {
         Album album = albumMapper.toEntity(dto);
         Album saved = albumRepository.save(album);
         AlbumDTO result = albumMapper.toDTO(saved);
 
-        // Envia notificação via WebSocket APÓS o commit da transação
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                @Override
-                public void afterCommit() {
-                    AlbumNotificationDTO notification = new AlbumNotificationDTO(
-                            saved.getId(),
-                            saved.getTitle(),
-                            "Novo álbum criado: " + saved.getTitle()
-                    );
-                    messagingTemplate.convertAndSend("/topic/albums", notification);
-                }
-            });
-        } else {
-            // fallback: envia imediatamente caso não haja transação ativa
-            AlbumNotificationDTO notification = new AlbumNotificationDTO(
-                    saved.getId(),
-                    saved.getTitle(),
-                    "Novo álbum criado: " + saved.getTitle()
-            );
-            messagingTemplate.convertAndSend("/topic/albums", notification);
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, saved.getId(),
+                ChangeNotificationService.Op.CREATED);
+        if (legacyAlbumTopic) {
+            sendLegacyNotification(saved);
         }
 
         return result;
     }
 
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#id")
     public AlbumDTO update(Long id, AlbumCreateUpdateDTO dto) {
         Album album = albumRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Álbum não encontrado com ID: " + id));
         albumMapper.updateEntity(dto, album);
         Album updated = albumRepository.save(album);
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, id, ChangeNotificationService.Op.UPDATED);
         return albumMapper.toDTO(updated);
     }
 
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#id")
     public void delete(Long id) {
         if (!albumRepository.existsById(id)) {
             throw new RuntimeException("Álbum não encontrado com ID: " + id);
         }
+        // As capas saem em cascata com o álbum; antes disso, solta as referências em cover_blob
+        // (e apaga original e variantes que ficarem sem uso)
+        albumCoverService.releaseCoverObjects(id);
         albumRepository.deleteById(id);
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, id, ChangeNotificationService.Op.DELETED);
     }
 
+    /**
+     * Detalhe do álbum. O cache (ALBUM_DETAIL) guarda o DTO sem URLs; as URLs das capas são resolvidas a cada
+     * leitura, para que uma URL pública de fallback (prazo estourado, pool cheio, circuito aberto) não fique
+     * presa no cache depois que o MinIO volta. O cache de presigned deixa essa resolução barata.
+     */
     @Transactional(readOnly = true)
     public AlbumDTO findById(Long id) {
+        return withCoverUrls(cachedDetail(id));
+    }
+
+    /**
+     * DTO montado do banco, sem URLs, e os nomes dos objetos das variantes de cada capa.
+     */
+    record AlbumDetail(AlbumDTO album, Map<Long, Map<String, String>> variantNames) {
+    }
+
+    private AlbumDetail cachedDetail(Long id) {
+        Cache cache = cacheManager.getCache(CacheConfig.ALBUM_DETAIL);
+        AlbumDetail cached = cache != null ? cache.get(id, AlbumDetail.class) : null;
+        if (cached != null) {
+            return cached;
+        }
+        AlbumDetail loaded = loadDetail(id);
+        if (cache != null) {
+            // Com o decorator transacional, o put só vale após o commit (como no @Cacheable)
+            cache.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    private AlbumDetail loadDetail(Long id) {
         Album album = albumRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Álbum não encontrado com ID: " + id));
 
@@ -92,101 +135,52 @@ public class AlbumService {
         }
 
         AlbumDTO dto = albumMapper.toDTO(album);
+        Map<Long, Map<String, String>> variantNames = dto.getCovers() == null || dto.getCovers().isEmpty()
+                ? Map.of()
+                : coverDerivativeService.variantObjectNames(dto.getCovers().stream().map(AlbumCoverDTO::getId).toList());
+        return new AlbumDetail(dto, variantNames);
+    }
 
-        // Preenche URLs nas covers (presigned ou pública como fallback)
-        if (dto.getCovers() != null && !dto.getCovers().isEmpty()) {
-            dto.getCovers().forEach(c -> {
-                String objectName = c.getObjectName() != null ? c.getObjectName() : c.getFileName();
-                try {
-                    c.setUrl(storageService.getPresignedUrl(objectName));
-                } catch (Exception e) {
-                    try {
-                        c.setUrl(storageService.getPublicUrl(objectName));
-                    } catch (Exception ex) {
-                        // deixa null caso ambos falhem
-                    }
-                }
-            });
+    /**
+     * Cópia do DTO em cache com as URLs das capas e variantes (presigned ou pública como fallback), em lote.
+     * O DTO em cache não é alterado.
+     */
+    private AlbumDTO withCoverUrls(AlbumDetail detail) {
+        AlbumDTO cached = detail.album();
+        if (cached.getCovers() == null || cached.getCovers().isEmpty()) {
+            return cached.toBuilder().build();
         }
-
-        return dto;
+        List<String> objectNames = new ArrayList<>();
+        cached.getCovers().forEach(c -> objectNames.add(objectNameOf(c)));
+        detail.variantNames().values().forEach(names -> objectNames.addAll(names.values()));
+        Map<String, String> urls = coverUrlResolver.resolveAll(objectNames);
+
+        return cached.toBuilder()
+                .covers(cached.getCovers().stream()
+                        .map(c -> c.toBuilder()
+                                .url(urls.get(objectNameOf(c)))
+                                .variants(CoverDerivativeService.toUrls(detail.variantNames().get(c.getId()), urls))
+                                .build())
+                        .collect(Collectors.toCollection(LinkedHashSet::new)))
+                .build();
     }
 
     @Transactional(readOnly = true)
     public Page<AlbumDTO> findAll(Pageable pageable) {
-        return albumRepository.findAll(pageable)
-                .map(album -> {
-                    // Força inicialização das collections LAZY dentro da transação
-                    if (album.getCovers() != null) {
-                        album.getCovers().size();
-                    }
-                    if (album.getArtists() != null) {
-                        album.getArtists().size();
-                    }
-
-                    AlbumDTO dto = albumMapper.toDTO(album);
-
-                    if (dto.getCovers() != null && !dto.getCovers().isEmpty()) {
-                        Set<AlbumCoverDTO> coversWithUrl = dto.getCovers().stream().map(c -> {
-                            String objectName = c.getObjectName() != null ? c.getObjectName() : c.getFileName();
-                            String url = null;
-                            try {
-                                url = storageService.getPresignedUrl(objectName);
-                            } catch (Exception e) {
-                                try {
-                                    url = storageService.getPublicUrl(objectName);
-                                } catch (Exception ex) {
-                                    // url permanece null
-                                }
-                            }
-                            c.setUrl(url);
-                            return c;
-                        }).collect(Collectors.toSet());
-                        dto.setCovers(coversWithUrl);
-                    }
-
-                    return dto;
-                });
+        return albumPageAssembler.assemble(albumRepository.findPageIds(pageable));
     }
 
     @Transactional(readOnly = true)
     public Page<AlbumDTO> findByTitle(String title, String order, Pageable pageable) {
-        Page<Album> page;
+        Page<Long> ids;
 
         if ("desc".equalsIgnoreCase(order)) {
-            page = albumRepository.findByTitleOrderDesc(title, pageable);
+            ids = albumRepository.findIdsByTitleOrderDesc(title, pageable);
         } else {
-            page = albumRepository.findByTitleOrderAsc(title, pageable);
+            ids = albumRepository.findIdsByTitleOrderAsc(title, pageable);
         }
 
-        return page.map(album -> {
-            // inicializa covers/artists
-            if (album.getCovers() != null) album.getCovers().size();
-            if (album.getArtists() != null) album.getArtists().size();
-
-            AlbumDTO dto = albumMapper.toDTO(album);
-
-            if (dto.getCovers() != null && !dto.getCovers().isEmpty()) {
-                Set<AlbumCoverDTO> coversWithUrl = dto.getCovers().stream().map(c -> {
-                    String objectName = c.getObjectName() != null ? c.getObjectName() : c.getFileName();
-                    String url = null;
-                    try {
-                        url = storageService.getPresignedUrl(objectName);
-                    } catch (Exception e) {
-                        try {
-                            url = storageService.getPublicUrl(objectName);
-                        } catch (Exception ex) {
-                            // url permanece null
-                        }
-                    }
-                    c.setUrl(url);
-                    return c;
-                }).collect(Collectors.toSet());
-                dto.setCovers(coversWithUrl);
-            }
-
-            return dto;
-        });
+        return albumPageAssembler.assemble(ids);
     }
 
     @Transactional(readOnly = true)
@@ -195,37 +189,47 @@ public class AlbumService {
             throw new RuntimeException("Artista não encontrado com ID: " + artistId);
         }
 
-        return albumRepository.findByArtistId(artistId, pageable)
-                .map(album -> {
-                    // inicializa covers/artists
-                    if (album.getCovers() != null) album.getCovers().size();
-                    if (album.getArtists() != null) album.getArtists().size();
-
-                    AlbumDTO dto = albumMapper.toDTO(album);
-
-                    if (dto.getCovers() != null && !dto.getCovers().isEmpty()) {
-                        Set<AlbumCoverDTO> coversWithUrl = dto.getCovers().stream().map(c -> {
-                            String objectName = c.getObjectName() != null ? c.getObjectName() : c.getFileName();
-                            String url = null;
-                            try {
-                                url = storageService.getPresignedUrl(objectName);
-                            } catch (Exception e) {
-                                try {
-                                    url = storageService.getPublicUrl(objectName);
-                                } catch (Exception ex) {
-                                    // url permanece null
-                                }
-                            }
-                            c.setUrl(url);
-                            return c;
-                        }).collect(Collectors.toSet());
-                        dto.setCovers(coversWithUrl);
-                    }
-
-                    return dto;
-                });
+        return albumPageAssembler.assemble(albumRepository.findIdsByArtistId(artistId, pageable));
     }
 
+    /**
+     * Listagem no modo cursor (keyset): busca limit + 1 IDs para saber se há próxima página
+     * e não executa COUNT.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<AlbumDTO> findByCursor(String title, Long artistId, String order, String after, int limit) {
+        if (artistId != null && !artistRepository.existsById(artistId)) {
+            throw new RuntimeException("Artista não encontrado com ID: " + artistId);
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+        boolean desc = "desc".equalsIgnoreCase(order);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        String titleFilter = title != null && !title.isEmpty() ? title : null;
+
+        List<Long> ids = albumRepository.findIdsByKeyset(titleFilter, artistId, desc,
+                cursor != null ? cursor.key() : null,
+                cursor != null ? cursor.id() : null,
+                size + 1);
+
+        boolean hasNext = ids.size() > size;
+        List<AlbumDTO> content = albumPageAssembler.assemble(hasNext ? ids.subList(0, size) : ids);
+
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            AlbumDTO last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getTitle(), last.getId()).encode();
+        }
+
+        return CursorPageDTO.<AlbumDTO>builder()
+                .content(content)
+                .limit(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
     public void addArtistToAlbum(Long albumId, Long artistId) {
         Album album = albumRepository.findById(albumId)
                 .orElseThrow(() -> new RuntimeException("Álbum não encontrado com ID: " + albumId));
@@ -234,8 +238,12 @@ public class AlbumService {
 
         album.getArtists().add(artist);
         albumRepository.save(album);
+        secondLevelCacheService.evictAlbumArtists(albumId);
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, albumId,
+                ChangeNotificationService.Op.UPDATED);
     }
 
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, key = "#albumId")
     public void removeArtistFromAlbum(Long albumId, Long artistId) {
         Album album = albumRepository.findById(albumId)
                 .orElseThrow(() -> new RuntimeException("Álbum não encontrado com ID: " + albumId));
@@ -244,5 +252,34 @@ public class AlbumService {
 
         album.getArtists().remove(artist);
         albumRepository.save(album);
+        secondLevelCacheService.evictAlbumArtists(albumId);
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, albumId,
+                ChangeNotificationService.Op.UPDATED);
+    }
+
+    /**
+     * Envia a notificação de álbum criado em /topic/albums APÓS o commit da transação.
+     */
+    private void sendLegacyNotification(Album saved) {
+        AlbumNotificationDTO notification = new AlbumNotificationDTO(
+                saved.getId(),
+                saved.getTitle(),
+                "Novo álbum criado: " + saved.getTitle()
+        );
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    messagingTemplate.convertAndSend("/topic/albums", notification);
+                }
+            });
+        } else {
+            // fallback: envia imediatamente caso não haja transação ativa
+            messagingTemplate.convertAndSend("/topic/albums", notification);
+        }
+    }
+
+    private String objectNameOf(AlbumCoverDTO cover) {
+        return cover.getObjectName() != null ? cover.getObjectName() : cover.getFileName();
     }
-}
\ No newline at end of file
+}
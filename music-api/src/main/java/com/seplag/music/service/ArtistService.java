@@ -1,44 +1,66 @@
 package com.seplag.music.service;
 
+import com.seplag.music.config.CacheConfig;
+import com.seplag.music.config.MetricsConfig;
 import com.seplag.music.domain.dto.ArtistCreateUpdateDTO;
 import com.seplag.music.domain.dto.ArtistDTO;
 import com.seplag.music.domain.dto.ArtistMapper;
+import com.seplag.music.domain.dto.CursorPageDTO;
 import com.seplag.music.domain.model.Artist;
 import com.seplag.music.domain.model.ArtistType;
 import com.seplag.music.repository.ArtistRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ArtistService {
 
+    private static final int MAX_CURSOR_LIMIT = 100;
+
     private final ArtistRepository artistRepository;
     private final ArtistMapper artistMapper;
+    private final ChangeNotificationService changeNotificationService;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     public ArtistDTO create(ArtistCreateUpdateDTO dto) {
         Artist artist = artistMapper.toEntity(dto);
         Artist saved = artistRepository.save(artist);
+        changeNotificationService.record(ChangeNotificationService.Entity.ARTIST, saved.getId(),
+                ChangeNotificationService.Op.CREATED);
         return artistMapper.toDTO(saved);
     }
 
+    // Nome/tipo do artista aparece no detalhe de todos os seus álbuns
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, allEntries = true)
     public ArtistDTO update(Long id, ArtistCreateUpdateDTO dto) {
         Artist artist = artistRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Artista não encontrado com ID: " + id));
         artistMapper.updateEntity(dto, artist);
         Artist updated = artistRepository.save(artist);
+        secondLevelCacheService.evictArtist(id);
+        changeNotificationService.record(ChangeNotificationService.Entity.ARTIST, id, ChangeNotificationService.Op.UPDATED);
         return artistMapper.toDTO(updated);
     }
 
+    @CacheEvict(value = CacheConfig.ALBUM_DETAIL, allEntries = true)
     public void delete(Long id) {
         if (!artistRepository.existsById(id)) {
             throw new RuntimeException("Artista não encontrado com ID: " + id);
         }
         artistRepository.deleteById(id);
+        secondLevelCacheService.evictArtist(id);
+        secondLevelCacheService.evictAllAlbumArtists();
+        changeNotificationService.record(ChangeNotificationService.Entity.ARTIST, id, ChangeNotificationService.Op.DELETED);
     }
 
     @Transactional(readOnly = true)
@@ -72,4 +94,37 @@ public class ArtistService {
         return artistRepository.findAll(pageable)
                 .map(artistMapper::toDTO);
     }
+
+    /**
+     * Listagem no modo cursor (keyset): busca limit + 1 registros para saber se há próxima página
+     * e não executa COUNT.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ArtistDTO> findByCursor(String name, ArtistType type, String order, String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+        boolean desc = "desc".equalsIgnoreCase(order);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        String nameFilter = name != null && !name.isEmpty() ? name : null;
+
+        List<Artist> artists = artistRepository.findByKeyset(nameFilter, type, desc,
+                cursor != null ? cursor.key() : null,
+                cursor != null ? cursor.id() : null,
+                size + 1);
+
+        boolean hasNext = artists.size() > size;
+        List<Artist> page = hasNext ? artists.subList(0, size) : artists;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Artist last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getName(), last.getId()).encode();
+        }
+
+        return CursorPageDTO.<ArtistDTO>builder()
+                .content(page.stream().map(artistMapper::toDTO).toList())
+                .limit(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
\ No newline at end of file
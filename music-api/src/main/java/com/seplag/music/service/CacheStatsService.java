@@ -0,0 +1,64 @@
+package com.seplag.music.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.seplag.music.domain.dto.CacheStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estatísticas dos caches da aplicação, para ajuste de tamanho e TTL.
+ */
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+
+    private final CacheManager cacheManager;
+    private final StorageService storageService;
+    private final SecondLevelCacheService secondLevelCacheService;
+
+    public List<CacheStatsDTO> getStats() {
+        List<CacheStatsDTO> result = new ArrayList<>();
+
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof CaffeineCache caffeineCache) {
+                var nativeCache = caffeineCache.getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                result.add(CacheStatsDTO.builder()
+                        .name(name)
+                        .size(nativeCache.estimatedSize())
+                        .hits(stats.hitCount())
+                        .misses(stats.missCount())
+                        .hitRate(stats.hitRate())
+                        .evictions(stats.evictionCount())
+                        .build());
+            }
+        }
+
+        long hits = storageService.getPresignedCacheHits();
+        long misses = storageService.getPresignedCacheMisses();
+        result.add(CacheStatsDTO.builder()
+                .name("presignedUrl")
+                .size(storageService.getPresignedCacheSize())
+                .hits(hits)
+                .misses(misses)
+                .hitRate(hits + misses == 0 ? 1.0 : (double) hits / (hits + misses))
+                .evictions(storageService.getPresignedCacheEvictions())
+                .build());
+
+        // Regiões do cache de segundo nível do Hibernate
+        result.addAll(secondLevelCacheService.getRegionStats());
+
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.seplag.music.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seplag.music.domain.dto.AlbumArtistRowDTO;
+import com.seplag.music.domain.dto.AlbumCoverRowDTO;
+import com.seplag.music.domain.dto.AlbumExportDTO;
+import com.seplag.music.domain.dto.AlbumRowDTO;
+import com.seplag.music.domain.dto.ArtistDTO;
+import com.seplag.music.repository.AlbumRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Export do catálogo completo em NDJSON (um álbum por linha).
+ * Lê os álbuns por cursor JDBC e processa em blocos de tamanho fixo, então o uso de heap
+ * não depende do tamanho do catálogo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogExportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final AlbumRepository albumRepository;
+    private final CoverUrlResolver coverUrlResolver;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportAlbums(OutputStream out) {
+        long total = 0;
+        List<AlbumRowDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (Stream<AlbumRowDTO> rows = albumRepository.streamAllRows()) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE) {
+                    total += writeChunk(chunk, out);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                total += writeChunk(chunk, out);
+            }
+            out.flush();
+        } catch (IOException e) {
+            // cliente desconectou no meio do export
+            throw new UncheckedIOException("Erro ao escrever export do catálogo", e);
+        }
+
+        log.info("Export do catálogo concluído: {} álbuns", total);
+        return total;
+    }
+
+    private int writeChunk(List<AlbumRowDTO> chunk, OutputStream out) throws IOException {
+        List<Long> ids = chunk.stream().map(AlbumRowDTO::getId).toList();
+
+        Map<Long, List<ArtistDTO>> artistsByAlbum = new HashMap<>();
+        for (AlbumArtistRowDTO row : albumRepository.findArtistRowsByAlbumIdIn(ids)) {
+            artistsByAlbum.computeIfAbsent(row.getAlbumId(), k -> new ArrayList<>())
+                    .add(ArtistDTO.builder()
+                            .id(row.getArtistId())
+                            .name(row.getName())
+                            .type(row.getType())
+                            .createdAt(row.getCreatedAt())
+                            .build());
+        }
+
+        Map<Long, String> coverByAlbum = albumRepository.findPrimaryCoverRowsByAlbumIdIn(ids).stream()
+                .collect(Collectors.toMap(AlbumCoverRowDTO::getAlbumId, AlbumCoverRowDTO::getObjectName, (a, b) -> a));
+        Map<String, String> urls = coverUrlResolver.resolveAll(coverByAlbum.values());
+
+        for (AlbumRowDTO row : chunk) {
+            String objectName = coverByAlbum.get(row.getId());
+            AlbumExportDTO dto = AlbumExportDTO.builder()
+                    .id(row.getId())
+                    .title(row.getTitle())
+                    .releaseYear(row.getReleaseYear())
+                    .createdAt(row.getCreatedAt())
+                    .artists(artistsByAlbum.getOrDefault(row.getId(), List.of()))
+                    .primaryCoverUrl(objectName != null ? urls.get(objectName) : null)
+                    .build();
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        }
+        out.flush();
+        return chunk.size();
+    }
+}
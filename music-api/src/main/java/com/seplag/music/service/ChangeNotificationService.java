@@ -0,0 +1,209 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.dto.ChangeBatchDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notificações de alteração de álbuns e artistas em /topic/changes.
+ * Cada alteração entra depois do commit, é coalescida por entidade durante a janela
+ * (criado + atualizado = criado; criado + removido = nada) e sai em lotes numerados por instância.
+ * Alterações demais na janela viram um único lote com resync=true.
+ */
+@Service
+@Slf4j
+public class ChangeNotificationService {
+
+    public static final String TOPIC = "/topic/changes";
+
+    public enum Entity { ALBUM, ARTIST }
+
+    public enum Op {
+        CREATED, UPDATED, COVERS, DELETED;
+
+        /**
+         * Alteração resultante de this seguida de next na mesma janela; null quando se anulam.
+         */
+        Op merge(Op next) {
+            if (this == DELETED) {
+                return DELETED;
+            }
+            if (next == DELETED) {
+                // Criado e removido antes de publicar: os clientes nunca souberam dele
+                return this == CREATED ? null : DELETED;
+            }
+            if (this == CREATED || next == CREATED) {
+                return CREATED;
+            }
+            return this == next ? this : UPDATED;
+        }
+    }
+
+    private record Key(Entity entity, Long id) {
+    }
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TaskScheduler scheduler;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final int maxPending;
+
+    private final String source = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter recordedCounter;
+    private final Counter batchCounter;
+
+    // Protegidos por lock
+    private final Object lock = new Object();
+    private final Map<Key, Op> pending = new LinkedHashMap<>();
+    private boolean resyncPending;
+    private boolean flushScheduled;
+
+    public ChangeNotificationService(SimpMessagingTemplate messagingTemplate,
+                                     @Qualifier("changeNotificationScheduler") TaskScheduler scheduler,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.notifications.enabled:true}") boolean enabled,
+                                     @Value("${app.notifications.window:200ms}") Duration window,
+                                     @Value("${app.notifications.max-batch-size:500}") int maxBatchSize,
+                                     @Value("${app.notifications.max-pending:10000}") int maxPending) {
+        this.messagingTemplate = messagingTemplate;
+        this.scheduler = scheduler;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.maxPending = maxPending;
+        this.recordedCounter = Counter.builder("music.notifications.changes")
+                .description("Alterações registradas após o commit, antes da coalescência")
+                .register(meterRegistry);
+        this.batchCounter = Counter.builder("music.notifications.batches")
+                .description("Lotes publicados em " + TOPIC)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra a alteração para publicar depois do commit da transação atual (ou já, sem transação).
+     */
+    public void record(Entity entity, Long id, Op op) {
+        if (!enabled || id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(new Key(entity, id), op);
+                }
+            });
+        } else {
+            enqueue(new Key(entity, id), op);
+        }
+    }
+
+    /**
+     * Pede recarga completa aos clientes no próximo lote (ex.: após importação em lote),
+     * no lugar de uma alteração por entidade.
+     */
+    public void requestResync() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            pending.clear();
+            resyncPending = true;
+            scheduleFlush();
+        }
+    }
+
+    private void enqueue(Key key, Op op) {
+        recordedCounter.increment();
+        synchronized (lock) {
+            if (resyncPending) {
+                // O cliente vai recarregar tudo depois deste lote
+                return;
+            }
+            Op current = pending.get(key);
+            Op merged = current == null ? op : current.merge(op);
+            if (merged == null) {
+                pending.remove(key);
+            } else {
+                pending.put(key, merged);
+            }
+            if (pending.size() > maxPending) {
+                pending.clear();
+                resyncPending = true;
+            }
+            scheduleFlush();
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled) {
+            try {
+                scheduler.schedule(this::flush, Instant.now().plus(window));
+                flushScheduled = true;
+            } catch (TaskRejectedException e) {
+                // Aplicação encerrando: quem ainda estiver conectado recebe o resync ao reconectar
+                log.debug("Lote de alterações descartado no encerramento: {}", e.getMessage());
+            }
+        }
+    }
+
+    void flush() {
+        List<ChangeBatchDTO.ChangeDTO> changes = new ArrayList<>();
+        boolean resync;
+        synchronized (lock) {
+            flushScheduled = false;
+            resync = resyncPending;
+            resyncPending = false;
+            pending.forEach((key, op) -> changes.add(new ChangeBatchDTO.ChangeDTO(
+                    key.entity().name().toLowerCase(Locale.ROOT), key.id(), op.name().toLowerCase(Locale.ROOT))));
+            pending.clear();
+        }
+
+        if (resync) {
+            publish(true, List.of());
+            return;
+        }
+        for (int from = 0; from < changes.size(); from += maxBatchSize) {
+            publish(false, changes.subList(from, Math.min(changes.size(), from + maxBatchSize)));
+        }
+    }
+
+    private void publish(boolean resync, List<ChangeBatchDTO.ChangeDTO> changes) {
+        // Número consumido mesmo se o envio falhar: o salto avisa o cliente
+        ChangeBatchDTO batch = ChangeBatchDTO.builder()
+                .source(source)
+                .sequence(sequence.incrementAndGet())
+                .timestamp(System.currentTimeMillis())
+                .resync(resync)
+                .changes(new ArrayList<>(changes))
+                .build();
+        try {
+            messagingTemplate.convertAndSend(TOPIC, batch);
+            batchCounter.increment();
+        } catch (MessagingException e) {
+            log.warn("Falha ao publicar lote {} de alterações: {}", batch.getSequence(), e.getMessage());
+        }
+    }
+}
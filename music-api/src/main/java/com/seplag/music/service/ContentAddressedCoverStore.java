@@ -0,0 +1,110 @@
+package com.seplag.music.service;
+
+import com.seplag.music.repository.CoverBlobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Armazena capas pelo SHA-256 do conteúdo (covers/{2 primeiros hex}/{sha256}).
+ * A mesma arte enviada para vários álbuns vira um único objeto, contado em cover_blob:
+ * o upload repetido não vai ao MinIO e o objeto só é apagado com a última referência.
+ */
+@Service
+@Slf4j
+public class ContentAddressedCoverStore {
+
+    private static final String PREFIX = "covers/";
+
+    private final CoverBlobRepository blobRepository;
+    private final StorageService storageService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter storedCounter;
+    private final Counter deduplicatedCounter;
+
+    public ContentAddressedCoverStore(CoverBlobRepository blobRepository,
+                                      StorageService storageService,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry) {
+        this.blobRepository = blobRepository;
+        this.storageService = storageService;
+        this.transactionTemplate = transactionTemplate;
+        this.storedCounter = uploadCounter(meterRegistry, "stored");
+        this.deduplicatedCounter = uploadCounter(meterRegistry, "deduplicated");
+    }
+
+    private static Counter uploadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("music.covers.uploads")
+                .description("Uploads de capa gravados no storage ou resolvidos por conteúdo já existente")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    public static String objectName(String sha256) {
+        return PREFIX + sha256.substring(0, 2) + "/" + sha256;
+    }
+
+    public static boolean isContentAddressed(String objectName) {
+        return objectName != null && objectName.startsWith(PREFIX);
+    }
+
+    public record Stored(String objectName, boolean deduplicated) {
+    }
+
+    /**
+     * Reserva uma referência ao conteúdo e grava o objeto se ele ainda não estiver no storage.
+     * Deve rodar fora de transação: a reserva é confirmada antes do envio, para que uma remoção
+     * concorrente do mesmo conteúdo não apague o objeto durante o upload.
+     * Se a capa não chegar a ser gravada, o chamador devolve a referência com {@link #abandon(String)}.
+     */
+    public Stored store(CoverSpool spool, String sha256, String contentType) {
+        String objectName = objectName(sha256);
+        if (blobRepository.reserve(objectName)) {
+            deduplicatedCounter.increment();
+            log.info("Conteúdo já armazenado em {}; upload ao storage dispensado", objectName);
+            return new Stored(objectName, true);
+        }
+        try (InputStream in = spool.openStream()) {
+            storageService.uploadStream(in, spool.size(), contentType, objectName);
+            blobRepository.markStored(objectName);
+        } catch (IOException e) {
+            abandon(objectName);
+            throw new UncheckedIOException("Erro ao ler cópia local da capa: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            abandon(objectName);
+            throw e;
+        }
+        storedCounter.increment();
+        return new Stored(objectName, false);
+    }
+
+    /**
+     * Devolve a referência reservada por {@link #store} quando a capa não foi gravada.
+     */
+    public void abandon(String objectName) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (releaseReference(objectName)) {
+                    storageService.deleteFile(objectName);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível devolver a referência de {}: {}", objectName, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove uma referência dentro da transação do chamador.
+     * @return true se era a última (ou o objeto não era contado): o chamador apaga o objeto e as variantes
+     * antes do commit, com a linha ainda travada
+     */
+    public boolean releaseReference(String objectName) {
+        return blobRepository.release(objectName) <= 0;
+    }
+}
@@ -0,0 +1,272 @@
+package com.seplag.music.service;
+
+import com.seplag.music.config.CacheConfig;
+import com.seplag.music.domain.model.AlbumCoverVariant;
+import com.seplag.music.repository.AlbumCoverVariantRepository;
+import com.seplag.music.repository.CoverBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera variantes redimensionadas das capas (ex.: 64/256/1024 px) de forma assíncrona,
+ * no pool limitado coverDerivativeExecutor. As variantes ficam ao lado do original
+ * ({objectName}_{tamanho}.jpg|png) e são registradas em album_cover_variant.
+ * Originais endereçados por conteúdo compartilham as variantes: uma capa nova com os mesmos bytes
+ * só copia os registros, sem baixar nem redimensionar de novo.
+ */
+@Service
+@Slf4j
+public class CoverDerivativeService {
+
+    private final AlbumCoverVariantRepository variantRepository;
+    private final CoverBlobRepository blobRepository;
+    private final StorageService storageService;
+    private final TaskExecutor executor;
+    private final CacheManager cacheManager;
+    private final ChangeNotificationService changeNotificationService;
+    private final List<Integer> sizes;
+    private final long maxSourcePixels;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CoverDerivativeService(AlbumCoverVariantRepository variantRepository,
+                                  CoverBlobRepository blobRepository,
+                                  StorageService storageService,
+                                  @Qualifier("coverDerivativeExecutor") TaskExecutor executor,
+                                  CacheManager cacheManager,
+                                  ChangeNotificationService changeNotificationService,
+                                  @Value("${app.covers.derivatives.sizes:64,256,1024}") List<Integer> sizes,
+                                  @Value("${app.covers.derivatives.max-source-pixels:40000000}") long maxSourcePixels) {
+        this.variantRepository = variantRepository;
+        this.blobRepository = blobRepository;
+        this.storageService = storageService;
+        this.executor = executor;
+        this.cacheManager = cacheManager;
+        this.changeNotificationService = changeNotificationService;
+        this.sizes = sizes.stream().sorted().toList();
+        this.maxSourcePixels = maxSourcePixels;
+    }
+
+    /**
+     * Agenda a geração das variantes para depois do commit (a capa precisa existir no banco).
+     */
+    public void scheduleAfterCommit(Long albumId, Long coverId, String objectName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(albumId, coverId, objectName);
+                }
+            });
+        } else {
+            submit(albumId, coverId, objectName);
+        }
+    }
+
+    private void submit(Long albumId, Long coverId, String objectName) {
+        try {
+            executor.execute(() -> generate(albumId, coverId, objectName));
+        } catch (TaskRejectedException e) {
+            // Back-pressure: não segura a requisição; a capa segue servida pelo original
+            rejected.incrementAndGet();
+            log.warn("Fila de variantes cheia; capa ID: {} fica sem variantes", coverId);
+        }
+    }
+
+    void generate(Long albumId, Long coverId, String objectName) {
+        List<String> uploaded = new ArrayList<>();
+        try {
+            if (reuseExisting(albumId, coverId, objectName)) {
+                return;
+            }
+
+            BufferedImage source;
+            try (InputStream in = storageService.downloadFile(objectName)) {
+                source = CoverThumbnailer.read(in, maxSourcePixels);
+            }
+            if (source == null) {
+                log.info("Formato sem decoder no JDK; capa ID: {} fica sem variantes", coverId);
+                return;
+            }
+
+            boolean alpha = CoverThumbnailer.hasAlpha(source);
+            String extension = alpha ? "png" : "jpg";
+            String contentType = alpha ? "image/png" : "image/jpeg";
+            int longestSide = Math.max(source.getWidth(), source.getHeight());
+
+            List<AlbumCoverVariant> variants = new ArrayList<>();
+            for (int size : sizes) {
+                if (size >= longestSide) {
+                    // Não amplia: o original já serve para esse tamanho
+                    continue;
+                }
+                BufferedImage resized = CoverThumbnailer.resize(source, size);
+                byte[] bytes = CoverThumbnailer.encode(resized);
+                String variantName = derivedObjectName(objectName, size, extension);
+
+                storageService.uploadStream(new ByteArrayInputStream(bytes), bytes.length, contentType, variantName);
+                uploaded.add(variantName);
+
+                variants.add(AlbumCoverVariant.builder()
+                        .coverId(coverId)
+                        .variant(String.valueOf(size))
+                        .width(resized.getWidth())
+                        .height(resized.getHeight())
+                        .objectName(variantName)
+                        .contentType(contentType)
+                        .fileSize((long) bytes.length)
+                        .build());
+            }
+
+            saveVariants(albumId, variants);
+            log.info("{} variantes geradas para capa ID: {}", variants.size(), coverId);
+
+        } catch (DataIntegrityViolationException e) {
+            // Capa removida durante o processamento
+            log.info("Capa ID: {} removida antes de gravar as variantes", coverId);
+            cleanUp(objectName, uploaded);
+        } catch (Exception e) {
+            log.error("Erro ao gerar variantes da capa ID: {}: {}", coverId, e.getMessage(), e);
+            cleanUp(objectName, uploaded);
+        }
+    }
+
+    /**
+     * Copia as variantes de outra capa com o mesmo original, se houver.
+     */
+    private boolean reuseExisting(Long albumId, Long coverId, String objectName) {
+        if (!ContentAddressedCoverStore.isContentAddressed(objectName)) {
+            return false;
+        }
+        Map<String, AlbumCoverVariant> bySize = new LinkedHashMap<>();
+        for (AlbumCoverVariant existing : variantRepository.findByObjectNameStartingWith(objectName + "_")) {
+            bySize.putIfAbsent(existing.getVariant(), existing);
+        }
+        if (bySize.isEmpty()) {
+            return false;
+        }
+        List<AlbumCoverVariant> copies = bySize.values().stream()
+                .map(existing -> AlbumCoverVariant.builder()
+                        .coverId(coverId)
+                        .variant(existing.getVariant())
+                        .width(existing.getWidth())
+                        .height(existing.getHeight())
+                        .objectName(existing.getObjectName())
+                        .contentType(existing.getContentType())
+                        .fileSize(existing.getFileSize())
+                        .build())
+                .toList();
+        saveVariants(albumId, copies);
+        log.info("{} variantes reaproveitadas para capa ID: {}", copies.size(), coverId);
+        return true;
+    }
+
+    private void saveVariants(Long albumId, List<AlbumCoverVariant> variants) {
+        if (variants.isEmpty()) {
+            return;
+        }
+        variantRepository.saveAll(variants);
+        Cache cache = cacheManager.getCache(CacheConfig.ALBUM_DETAIL);
+        if (cache != null) {
+            cache.evict(albumId);
+        }
+        // Novas URLs de variantes no detalhe do álbum
+        changeNotificationService.record(ChangeNotificationService.Entity.ALBUM, albumId,
+                ChangeNotificationService.Op.COVERS);
+    }
+
+    /**
+     * Remove as variantes enviadas numa geração que não foi registrada. Variantes de um original
+     * compartilhado ficam enquanto outras capas o usarem (saem com a última referência).
+     */
+    private void cleanUp(String objectName, List<String> uploaded) {
+        if (ContentAddressedCoverStore.isContentAddressed(objectName) && blobRepository.isReferenced(objectName)) {
+            return;
+        }
+        uploaded.forEach(this::deleteQuietly);
+    }
+
+    /**
+     * Mapa coverId → (variante → objectName) para montar as URLs em lote.
+     */
+    public Map<Long, Map<String, String>> variantObjectNames(Collection<Long> coverIds) {
+        if (coverIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Map<String, String>> result = new HashMap<>();
+        for (AlbumCoverVariant variant : variantRepository.findByCoverIdIn(coverIds)) {
+            result.computeIfAbsent(variant.getCoverId(), k -> new LinkedHashMap<>())
+                    .put(variant.getVariant(), variant.getObjectName());
+        }
+        // Ordena pelo tamanho para a resposta ficar estável
+        result.replaceAll((id, names) -> sortBySize(names));
+        return result;
+    }
+
+    /**
+     * Troca objectName por URL; null quando a capa não tem variantes.
+     */
+    public static Map<String, String> toUrls(Map<String, String> variantObjectNames, Map<String, String> urls) {
+        if (variantObjectNames == null || variantObjectNames.isEmpty()) {
+            return null;
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        variantObjectNames.forEach((variant, name) -> result.put(variant, urls.get(name)));
+        return result;
+    }
+
+    /**
+     * Remove os objetos das variantes no storage (as linhas saem junto com a capa, via ON DELETE CASCADE).
+     */
+    public void deleteVariantObjects(Long coverId) {
+        variantRepository.findByCoverId(coverId)
+                .forEach(variant -> deleteQuietly(variant.getObjectName()));
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    static String derivedObjectName(String objectName, int size, String extension) {
+        int slash = objectName.lastIndexOf('/');
+        int dot = objectName.lastIndexOf('.');
+        String base = dot > slash ? objectName.substring(0, dot) : objectName;
+        return base + "_" + size + "." + extension;
+    }
+
+    private Map<String, String> sortBySize(Map<String, String> names) {
+        Map<String, String> sorted = new LinkedHashMap<>();
+        names.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey((a, b) -> Integer.compare(Integer.parseInt(a), Integer.parseInt(b))))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private void deleteQuietly(String objectName) {
+        try {
+            storageService.deleteFile(objectName);
+        } catch (Exception e) {
+            log.warn("Não foi possível remover variante {}: {}", objectName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.seplag.music.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Cópia em disco local das capas mais acessadas, na frente do MinIO (app.covers.image.disk-cache).
+ * Os objetos de capa nunca são regravados com outro conteúdo, então uma cópia nunca fica desatualizada:
+ * o limite de espaço é mantido descartando as menos usadas (LRU).
+ * Um único download por objeto: requisições simultâneas pela mesma capa esperam a primeira.
+ * O arquivo é entregue já aberto, sob o mesmo lock do descarte: um arquivo descartado depois disso
+ * continua legível pelo canal até ser fechado.
+ */
+@Component
+@Slf4j
+public class CoverDiskCache {
+
+    private final StorageService storageService;
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Ordem de acesso: o primeiro é o menos usado
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<Path>> loading = new ConcurrentHashMap<>();
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public CoverDiskCache(StorageService storageService,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.covers.image.disk-cache.enabled:false}") boolean enabled,
+                          @Value("${app.covers.image.disk-cache.directory:${java.io.tmpdir}/music-api-covers}") Path directory,
+                          @Value("${app.covers.image.disk-cache.max-size:512MB}") DataSize maxSize,
+                          @Value("${app.covers.image.disk-cache.max-entry-size:10MB}") DataSize maxEntrySize) {
+        this.storageService = storageService;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), maxBytes);
+        this.hits = Counter.builder("music.covers.disk_cache.requests")
+                .description("Leituras de capa atendidas pelo cache em disco")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("music.covers.disk_cache.requests")
+                .description("Leituras de capa atendidas pelo cache em disco")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("music.covers.disk_cache.size", this, CoverDiskCache::sizeInBytes)
+                .description("Bytes ocupados pelo cache de capas em disco")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (enabled) {
+            loadIndex();
+        }
+    }
+
+    /**
+     * Reaproveita os arquivos de uma execução anterior, do mais antigo ao mais recente.
+     */
+    private void loadIndex() {
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(Files::isRegularFile)
+                        .sorted(Comparator.comparingLong(CoverDiskCache::lastModified))
+                        .forEach(file -> {
+                            String name = file.getFileName().toString();
+                            if (name.endsWith(".part")) {
+                                deleteQuietly(file);
+                            } else {
+                                long size = file.toFile().length();
+                                entries.put(name, size);
+                                totalBytes += size;
+                            }
+                        });
+            }
+            synchronized (this) {
+                evict(null);
+            }
+            log.info("Cache de capas em disco em {}: {} arquivos ({} bytes)", directory, entries.size(), totalBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível preparar o cache de capas em " + directory, e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Canal aberto para o conteúdo local do objeto, baixando-o do storage se preciso; o chamador fecha o canal.
+     * Vazio com o cache desativado, objeto acima de max-entry-size, falha de disco ou arquivo descartado
+     * antes de ser aberto (o chamador lê do storage).
+     */
+    public Optional<FileChannel> open(String objectName, long size) {
+        if (!enabled || size > maxEntryBytes) {
+            return Optional.empty();
+        }
+        String key = key(objectName);
+        FileChannel cached = openIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            return await(inFlight) != null ? Optional.ofNullable(openIfPresent(key)) : Optional.empty();
+        }
+        try {
+            Path file = load(objectName, key);
+            mine.complete(file);
+            return file != null ? Optional.ofNullable(openIfPresent(key)) : Optional.empty();
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Abre o arquivo com o lock: o descarte (também sob o lock) não o remove entre a consulta e a abertura.
+     */
+    private synchronized FileChannel openIfPresent(String key) {
+        Long size = entries.get(key);
+        if (size == null) {
+            return null;
+        }
+        try {
+            return FileChannel.open(directory.resolve(key), StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Removido por fora do cache: esquece a entrada
+            entries.remove(key);
+            totalBytes -= size;
+            log.warn("Capa em cache {} ilegível: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Path load(String objectName, String key) {
+        Path part = null;
+        try {
+            part = Files.createTempFile(directory, key, ".part");
+            try (InputStream in = storageService.downloadFile(objectName)) {
+                Files.copy(in, part, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long size = Files.size(part);
+            Path file = directory.resolve(key);
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                Long previous = entries.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evict(key);
+            }
+            return file;
+        } catch (IOException e) {
+            log.warn("Falha ao gravar capa {} no cache em disco: {}", objectName, e.getMessage());
+            return null;
+        } finally {
+            if (part != null) {
+                deleteQuietly(part);
+            }
+        }
+    }
+
+    /**
+     * Descarta os arquivos menos usados até caber no limite, preservando o recém-gravado.
+     * Canais já abertos por {@link #open} continuam lendo o arquivo removido até serem fechados.
+     */
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(directory.resolve(eldest.getKey()));
+        }
+    }
+
+    private synchronized double sizeInBytes() {
+        return totalBytes;
+    }
+
+    private static Path await(CompletableFuture<Path> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    static String key(String objectName) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        return file.toFile().lastModified();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Não foi possível remover {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.model.AlbumCover;
+import com.seplag.music.domain.model.AlbumCoverVariant;
+import com.seplag.music.exception.BusinessException;
+import com.seplag.music.repository.AlbumCoverRepository;
+import com.seplag.music.repository.AlbumCoverVariantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.StatObjectResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Entrega a imagem da capa por uma URL estável (/albums/{albumId}/covers/{coverId}/image), que navegadores e CDNs
+ * podem guardar: capas com checksum estão no endereço por conteúdo e nunca mudam, então a resposta é imutável
+ * e validada por ETag forte derivado do SHA-256. Capas antigas, sem checksum, usam o ETag do storage (fraco) e cache curto.
+ * Atende If-None-Match (304) e um intervalo de bytes (206); o corpo vem do cache em disco
+ * (FileChannel.transferTo, só para conteúdo imutável) ou do MinIO em streaming.
+ */
+@Service
+public class CoverImageService {
+
+    public static final String ORIGINAL = "original";
+
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+            .getHeaderValue();
+    // Variante ainda não gerada ou capa sem checksum: cache por pouco tempo
+    private static final String FALLBACK = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic().getHeaderValue();
+
+    private final AlbumCoverRepository albumCoverRepository;
+    private final AlbumCoverVariantRepository variantRepository;
+    private final StorageService storageService;
+    private final CoverDiskCache diskCache;
+    private final Counter notModifiedCounter;
+    private final Counter diskCounter;
+    private final Counter storageCounter;
+
+    public CoverImageService(AlbumCoverRepository albumCoverRepository,
+                             AlbumCoverVariantRepository variantRepository,
+                             StorageService storageService,
+                             CoverDiskCache diskCache,
+                             MeterRegistry meterRegistry) {
+        this.albumCoverRepository = albumCoverRepository;
+        this.variantRepository = variantRepository;
+        this.storageService = storageService;
+        this.diskCache = diskCache;
+        this.notModifiedCounter = requestCounter(meterRegistry, "not_modified");
+        this.diskCounter = requestCounter(meterRegistry, "disk");
+        this.storageCounter = requestCounter(meterRegistry, "storage");
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("music.covers.image.requests")
+                .description("Imagens de capa entregues, por origem (304, cache em disco ou MinIO)")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Objeto a entregar para a capa/variante.
+     * @param exact false quando a variante pedida ainda não existe e o original a substitui
+     * @param immutable true quando o conteúdo é endereçado pelo checksum e nunca muda
+     */
+    public record CoverImage(String objectName, String contentType, long size, String etag, boolean exact,
+                             boolean immutable) {
+    }
+
+    /**
+     * Resolve a capa e a variante pedida ("original" ou o tamanho, ex.: "256").
+     */
+    public CoverImage find(Long albumId, Long coverId, String variant) {
+        AlbumCover cover = albumCoverRepository.findById(coverId)
+                .filter(c -> c.getAlbum().getId().equals(albumId))
+                .orElseThrow(() -> BusinessException.notFound("Capa não encontrada com ID: " + coverId));
+
+        boolean original = variant == null || ORIGINAL.equals(variant);
+        if (!original && (variant.isEmpty() || !variant.chars().allMatch(Character::isDigit))) {
+            throw BusinessException.badRequest("Variante inválida: use 'original' ou o tamanho em px");
+        }
+        Optional<AlbumCoverVariant> match = original
+                ? Optional.empty()
+                : variantRepository.findByCoverId(coverId).stream()
+                        .filter(v -> v.getVariant().equals(variant))
+                        .findFirst();
+        // Variante ausente: o original a substitui, com o mesmo ETag
+        String objectName = match.map(AlbumCoverVariant::getObjectName).orElse(cover.getObjectName());
+        String contentType = match.map(AlbumCoverVariant::getContentType).orElse(cover.getContentType());
+        Long recordedSize = match.map(AlbumCoverVariant::getFileSize).orElse(cover.getFileSize());
+        boolean exact = original || match.isPresent();
+
+        if (cover.getChecksum() == null) {
+            // Sem checksum (capa anterior ao endereçamento por conteúdo): o objeto pode ter sido regravado,
+            // então vale o ETag atual do storage, como validador fraco
+            StatObjectResponse stat = storageService.statFile(objectName)
+                    .orElseThrow(() -> BusinessException.notFound("Imagem não encontrada no storage: " + objectName));
+            return new CoverImage(objectName, contentType, stat.size(), "W/\"" + stat.etag() + "\"", exact, false);
+        }
+        String etag = "\"" + cover.getChecksum() + (match.isPresent() ? "-" + variant : "") + "\"";
+        return new CoverImage(objectName, contentType, sizeOf(objectName, recordedSize), etag, exact, true);
+    }
+
+    private long sizeOf(String objectName, Long recordedSize) {
+        if (recordedSize != null) {
+            return recordedSize;
+        }
+        return storageService.statFile(objectName)
+                .map(StatObjectResponse::size)
+                .orElseThrow(() -> BusinessException.notFound("Imagem não encontrada no storage: " + objectName));
+    }
+
+    /**
+     * Escreve a resposta: 304 se o cliente já tem a versão, 206 para um intervalo válido, 416 fora do tamanho
+     * e 200 com o objeto inteiro nos demais casos (inclusive Range com vários intervalos).
+     */
+    public void serve(Long albumId, Long coverId, String variant,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CoverImage image = find(albumId, coverId, variant);
+        String cacheControl = image.exact() && image.immutable() ? IMMUTABLE : FALLBACK;
+
+        if (new ServletWebRequest(request, response).checkNotModified(image.etag())) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            notModifiedCounter.increment();
+            return;
+        }
+
+        long size = image.size();
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        HttpRange range = singleRange(request, image.etag());
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start >= size || start > end) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            partial = true;
+        }
+        long length = end - start + 1;
+
+        if ("HEAD".equals(request.getMethod())) {
+            writeHeaders(response, image, cacheControl, partial, start, end, length);
+            return;
+        }
+
+        // Abre a origem antes dos cabeçalhos: uma falha ainda vira a resposta de erro padrão
+        // O cache em disco guarda por nome, então só conteúdo que nunca muda
+        Optional<FileChannel> cached = image.immutable() ? diskCache.open(image.objectName(), size) : Optional.empty();
+        if (cached.isPresent()) {
+            diskCounter.increment();
+            try (FileChannel channel = cached.get()) {
+                writeHeaders(response, image, cacheControl, partial, start, end, length);
+                transfer(channel, start, length, response);
+            }
+            return;
+        }
+
+        storageCounter.increment();
+        try (InputStream in = partial
+                ? storageService.downloadFile(image.objectName(), start, length)
+                : storageService.downloadFile(image.objectName())) {
+            writeHeaders(response, image, cacheControl, partial, start, end, length);
+            try (OutputStream out = response.getOutputStream()) {
+                in.transferTo(out);
+            }
+        }
+    }
+
+    /**
+     * Único intervalo de Range, se houver e se o If-Range (quando presente) ainda casar com o ETag forte.
+     * Cabeçalho inválido ou com vários intervalos é ignorado e o objeto vai inteiro.
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range exige comparação forte: com ETag fraco o intervalo nunca é confirmado
+        if (ifRange != null && (etag.startsWith("W/") || !ifRange.equals(etag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, CoverImage image, String cacheControl,
+                                     boolean partial, long start, long end, long length) {
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + image.size());
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(image.contentType() != null ? image.contentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLengthLong(length);
+    }
+
+    /**
+     * Copia o trecho do arquivo já aberto; o canal segura o arquivo mesmo se o cache o descartar no meio.
+     */
+    private static void transfer(FileChannel channel, long start, long length,
+                                 HttpServletResponse response) throws IOException {
+        try (WritableByteChannel out = Channels.newChannel(response.getOutputStream())) {
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.seplag.music.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Cópia local de um upload de capa, para conhecer o hash antes de decidir se o envio ao storage é necessário.
+ * Até memoryThreshold bytes fica em memória; acima disso vai para um arquivo temporário, apagado no close().
+ */
+public class CoverSpool implements AutoCloseable {
+
+    private final byte[] bytes;
+    private final Path file;
+    private final long size;
+
+    private CoverSpool(byte[] bytes, Path file, long size) {
+        this.bytes = bytes;
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Lê o stream até o fim. Erros de leitura (inclusive recusas do CoverUploadStream) sobem sem deixar arquivo.
+     */
+    public static CoverSpool copyOf(InputStream in, int memoryThreshold) throws IOException {
+        ByteArrayOutputStream memory = new ByteArrayOutputStream(Math.min(memoryThreshold, 64 * 1024));
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            memory.write(buffer, 0, n);
+            if (memory.size() > memoryThreshold) {
+                return spillToFile(memory, in, buffer);
+            }
+        }
+        return new CoverSpool(memory.toByteArray(), null, memory.size());
+    }
+
+    private static CoverSpool spillToFile(ByteArrayOutputStream memory, InputStream in, byte[] buffer) throws IOException {
+        Path file = Files.createTempFile("cover-", ".upload");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            memory.writeTo(out);
+            long size = memory.size();
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+                size += n;
+            }
+            return new CoverSpool(null, file, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Novo stream do conteúdo a cada chamada (reenvio após NoSuchBucket, por exemplo).
+     */
+    public InputStream openStream() throws IOException {
+        return bytes != null ? new ByteArrayInputStream(bytes) : Files.newInputStream(file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
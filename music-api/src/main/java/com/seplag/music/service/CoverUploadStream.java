@@ -0,0 +1,154 @@
+package com.seplag.music.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * InputStream de upload de capa que valida enquanto os bytes passam:
+ * conta o tamanho (falha ao passar do limite), calcula o SHA-256 e confere
+ * a assinatura (magic bytes) de formatos de imagem nos primeiros bytes.
+ */
+public class CoverUploadStream extends FilterInputStream {
+
+    private static final int SNIFF_BYTES = 12;
+
+    private final long maxBytes;
+    private final MessageDigest digest;
+    private final byte[] head = new byte[SNIFF_BYTES];
+    private int headLength;
+    private boolean verified;
+    private long count;
+
+    public CoverUploadStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count += n;
+            if (count > maxBytes) {
+                throw new RejectedException("Arquivo não pode exceder " + (maxBytes / (1024 * 1024)) + "MB");
+            }
+            digest.update(b, off, n);
+            if (!verified) {
+                int copy = Math.min(n, SNIFF_BYTES - headLength);
+                System.arraycopy(b, off, head, headLength, copy);
+                headLength += copy;
+                if (headLength == SNIFF_BYTES) {
+                    verifyImageSignature();
+                }
+            }
+        } else if (n == -1) {
+            if (count == 0) {
+                throw new RejectedException("Arquivo não pode estar vazio");
+            }
+            if (!verified) {
+                verifyImageSignature();
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Lê e descarta para manter tamanho e checksum consistentes
+        byte[] buffer = new byte[8192];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Confere vazio/assinatura quando o consumidor parou de ler antes do EOF
+     * (ex.: SDK lê exatamente o Content-Length e arquivos menores que a janela de assinatura).
+     */
+    public void verifyComplete() throws RejectedException {
+        if (count == 0) {
+            throw new RejectedException("Arquivo não pode estar vazio");
+        }
+        if (!verified) {
+            verifyImageSignature();
+        }
+    }
+
+    public long getSize() {
+        return count;
+    }
+
+    /**
+     * SHA-256 em hex; só deve ser chamado após o stream ser consumido.
+     */
+    public String getChecksum() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void verifyImageSignature() throws RejectedException {
+        verified = true;
+        if (!isKnownImage(head, headLength)) {
+            throw new RejectedException("Apenas arquivos de imagem são permitidos");
+        }
+    }
+
+    static boolean isKnownImage(byte[] h, int len) {
+        return startsWith(h, len, 0xFF, 0xD8, 0xFF)                       // JPEG
+                || startsWith(h, len, 0x89, 'P', 'N', 'G')                   // PNG
+                || startsWith(h, len, 'G', 'I', 'F', '8')                    // GIF
+                || startsWith(h, len, 'B', 'M')                              // BMP
+                || startsWith(h, len, 'I', 'I', 0x2A, 0x00)                  // TIFF (LE)
+                || startsWith(h, len, 'M', 'M', 0x00, 0x2A)                  // TIFF (BE)
+                || (startsWith(h, len, 'R', 'I', 'F', 'F')                   // WebP
+                    && len >= 12 && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P')
+                || (len >= 12 && h[4] == 'f' && h[5] == 't' && h[6] == 'y' && h[7] == 'p'); // HEIC/AVIF
+    }
+
+    private static boolean startsWith(byte[] h, int len, int... signature) {
+        if (len < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((h[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Upload recusado durante a leitura (tamanho, vazio ou tipo).
+     */
+    public static class RejectedException extends IOException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+}
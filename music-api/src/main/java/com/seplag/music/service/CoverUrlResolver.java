@@ -0,0 +1,108 @@
+package com.seplag.music.service;
+
+import com.seplag.music.config.StorageCircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolve as URLs de um lote de capas de uma vez.
+ * URLs já em cache voltam direto; as demais são assinadas em paralelo no coverUrlExecutor
+ * com um prazo único para o lote. O que não ficar pronto no prazo (ou falhar) usa a URL pública.
+ * Com o circuito do MinIO aberto nada é assinado: o lote sai na hora com URLs públicas.
+ */
+@Component
+@Slf4j
+public class CoverUrlResolver {
+
+    private final StorageService storageService;
+    private final StorageCircuitBreaker circuitBreaker;
+    private final TaskExecutor executor;
+    private final Duration deadline;
+
+    public CoverUrlResolver(StorageService storageService,
+                            StorageCircuitBreaker circuitBreaker,
+                            @Qualifier("coverUrlExecutor") TaskExecutor executor,
+                            @Value("${minio.url-resolver.deadline:500ms}") Duration deadline) {
+        this.storageService = storageService;
+        this.circuitBreaker = circuitBreaker;
+        this.executor = executor;
+        this.deadline = deadline;
+    }
+
+    public String resolve(String objectName) {
+        return resolveAll(List.of(objectName)).get(objectName);
+    }
+
+    /**
+     * @return mapa objectName → URL (presigned ou pública como fallback)
+     */
+    public Map<String, String> resolveAll(Collection<String> objectNames) {
+        Map<String, String> urls = new HashMap<>();
+        Map<String, CompletableFuture<String>> pending = new LinkedHashMap<>();
+        boolean storageDown = circuitBreaker.isOpen();
+
+        for (String objectName : objectNames) {
+            if (objectName == null || urls.containsKey(objectName) || pending.containsKey(objectName)) {
+                continue;
+            }
+            String cached = storageService.getCachedPresignedUrl(objectName);
+            if (cached != null) {
+                urls.put(objectName, cached);
+                continue;
+            }
+            if (storageDown) {
+                urls.put(objectName, storageService.getPublicUrl(objectName));
+                continue;
+            }
+            try {
+                pending.put(objectName, CompletableFuture.supplyAsync(
+                        () -> storageService.getPresignedUrl(objectName), executor));
+            } catch (RejectedExecutionException e) {
+                urls.put(objectName, storageService.getPublicUrl(objectName));
+            }
+        }
+
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        int degraded = 0;
+
+        for (Map.Entry<String, CompletableFuture<String>> entry : pending.entrySet()) {
+            String objectName = entry.getKey();
+            long remaining = Math.max(0, deadlineNanos - System.nanoTime());
+            try {
+                urls.put(objectName, entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // a assinatura continua em background e alimenta o cache para a próxima chamada
+                urls.put(objectName, storageService.getPublicUrl(objectName));
+                degraded++;
+            } catch (ExecutionException e) {
+                urls.put(objectName, storageService.getPublicUrl(objectName));
+                degraded++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                urls.put(objectName, storageService.getPublicUrl(objectName));
+                degraded++;
+            }
+        }
+
+        if (degraded > 0) {
+            log.warn("{} de {} URLs de capa degradadas para URL pública (prazo {} ms)",
+                    degraded, pending.size(), deadline.toMillis());
+        }
+        return urls;
+    }
+}
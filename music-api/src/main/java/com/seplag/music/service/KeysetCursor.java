@@ -0,0 +1,34 @@
+package com.seplag.music.service;
+
+import com.seplag.music.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição de um cursor de paginação keyset: chave de ordenação (title/name) + id.
+ * Serializado como Base64 URL-safe de "id:chave".
+ */
+public record KeysetCursor(String key, Long id) {
+
+    public String encode() {
+        String raw = id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            if (sep <= 0) {
+                throw BusinessException.badRequest("Cursor inválido");
+            }
+            return new KeysetCursor(raw.substring(sep + 1), Long.parseLong(raw.substring(0, sep)));
+        } catch (IllegalArgumentException e) {
+            throw BusinessException.badRequest("Cursor inválido");
+        }
+    }
+}
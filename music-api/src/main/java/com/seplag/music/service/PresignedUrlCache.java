@@ -0,0 +1,133 @@
+package com.seplag.music.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU limitado de URLs presigned.
+ * Uma entrada é reaproveitada enquanto não tiver consumido a fração configurada
+ * do seu tempo de validade; depois disso a URL é assinada novamente.
+ */
+public class PresignedUrlCache {
+
+    private final int maxSize;
+    private final double refreshFraction;
+    private final Map<CacheKey, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PresignedUrlCache(int maxSize, double refreshFraction) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize não pode ser negativo");
+        }
+        if (refreshFraction <= 0 || refreshFraction > 1) {
+            throw new IllegalArgumentException("refreshFraction deve estar em (0, 1]");
+        }
+        this.maxSize = maxSize;
+        this.refreshFraction = refreshFraction;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                boolean remove = size() > PresignedUrlCache.this.maxSize;
+                if (remove) {
+                    evictions.incrementAndGet();
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * Retorna a URL em cache se ainda estiver dentro da janela de reuso,
+     * senão chama o signer e guarda o resultado.
+     */
+    public String get(String objectName, long expirySeconds, Supplier<String> signer) {
+        if (maxSize == 0) {
+            misses.incrementAndGet();
+            return signer.get();
+        }
+
+        CacheKey key = new CacheKey(objectName, expirySeconds);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now < entry.refreshAt()) {
+                hits.incrementAndGet();
+                return entry.url();
+            }
+        }
+
+        // Assina fora do lock para não serializar chamadas ao MinIO
+        misses.incrementAndGet();
+        String url = signer.get();
+        long refreshAt = now + (long) (expirySeconds * 1000L * refreshFraction);
+
+        synchronized (entries) {
+            entries.put(key, new Entry(url, refreshAt));
+        }
+        return url;
+    }
+
+    /**
+     * Retorna a URL em cache se ainda estiver dentro da janela de reuso, ou null.
+     * Não assina; conta hit apenas quando encontra.
+     */
+    public String getIfFresh(String objectName, long expirySeconds) {
+        if (maxSize == 0) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(new CacheKey(objectName, expirySeconds));
+            if (entry != null && now < entry.refreshAt()) {
+                hits.incrementAndGet();
+                return entry.url();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove todas as entradas de um objeto, independente da validade.
+     */
+    public void evict(String objectName) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.objectName().equals(objectName));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private record CacheKey(String objectName, long expirySeconds) {
+    }
+
+    private record Entry(String url, long refreshAt) {
+    }
+}
@@ -20,6 +20,7 @@ public class RegionalService {
 
     private final RegionalRepository regionalRepository;
     private final RegionalMapper regionalMapper;
+    private final SecondLevelCacheService secondLevelCacheService;
 
     @Transactional(readOnly = true)
     public RegionalDTO findById(Integer id) {
@@ -46,6 +47,7 @@ public class RegionalService {
         Regional regional = regionalMapper.toEntity(dto);
         regional.setUpdatedAt(LocalDateTime.now());
         Regional saved = regionalRepository.save(regional);
+        secondLevelCacheService.evictRegionals();
         return regionalMapper.toDTO(saved);
     }
 
@@ -56,6 +58,7 @@ public class RegionalService {
         regional.setAtivo(dto.getAtivo());
         regional.setUpdatedAt(LocalDateTime.now());
         Regional updated = regionalRepository.save(regional);
+        secondLevelCacheService.evictRegionals();
         return regionalMapper.toDTO(updated);
     }
 
@@ -65,5 +68,6 @@ public class RegionalService {
         regional.setAtivo(false);
         regional.setUpdatedAt(LocalDateTime.now());
         regionalRepository.save(regional);
+        secondLevelCacheService.evictRegionals();
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.dto.SearchHitDTO;
+import com.seplag.music.domain.dto.SearchHitRow;
+import com.seplag.music.domain.dto.SearchResultDTO;
+import com.seplag.music.exception.BusinessException;
+import com.seplag.music.repository.AlbumRepository;
+import com.seplag.music.repository.ArtistRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final AlbumRepository albumRepository;
+    private final ArtistRepository artistRepository;
+
+    /**
+     * Busca álbuns (por título) e artistas (por nome) ordenados por relevância.
+     */
+    public SearchResultDTO search(String query, String type, int limit) {
+        if (query == null || query.isBlank()) {
+            throw BusinessException.badRequest("Parâmetro de busca não pode estar vazio");
+        }
+
+        String term = query.trim();
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        boolean albums = !"artists".equalsIgnoreCase(type);
+        boolean artists = !"albums".equalsIgnoreCase(type);
+
+        return SearchResultDTO.builder()
+                .query(term)
+                .albums(albums ? toHits(albumRepository.searchByTitle(term, size)) : List.of())
+                .artists(artists ? toHits(artistRepository.searchByName(term, size)) : List.of())
+                .build();
+    }
+
+    private List<SearchHitDTO> toHits(List<SearchHitRow> rows) {
+        return rows.stream()
+                .map(row -> SearchHitDTO.builder()
+                        .id(row.getId())
+                        .name(row.getName())
+                        .score(row.getScore())
+                        .build())
+                .toList();
+    }
+}
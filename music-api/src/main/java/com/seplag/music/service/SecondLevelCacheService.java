@@ -0,0 +1,109 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.dto.CacheStatsDTO;
+import com.seplag.music.domain.model.Album;
+import com.seplag.music.domain.model.Artist;
+import com.seplag.music.domain.model.Regional;
+import com.seplag.music.repository.RegionalRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Evicção explícita e estatísticas do cache de segundo nível do Hibernate (regiões artist, regional,
+ * album-artists e regional-query). O Hibernate já atualiza as regiões nas escritas por entidade; aqui ficam
+ * os casos que ele não enxerga (vínculos de um artista removido, consultas em cache) e a evicção após o commit,
+ * para nenhuma leitura concorrente repopular a região com o dado anterior.
+ */
+@Service
+@RequiredArgsConstructor
+public class SecondLevelCacheService {
+
+    static final String ALBUM_ARTISTS_ROLE = Album.class.getName() + ".artists";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictArtist(Long artistId) {
+        afterCommit(cache -> cache.evictEntityData(Artist.class, artistId));
+    }
+
+    /**
+     * Artista removido: não se sabe de quais álbuns ele fazia parte, então a coleção inteira sai do cache.
+     */
+    public void evictAllAlbumArtists() {
+        afterCommit(cache -> cache.evictCollectionData(ALBUM_ARTISTS_ROLE));
+    }
+
+    public void evictAlbumArtists(Long albumId) {
+        afterCommit(cache -> cache.evictCollectionData(ALBUM_ARTISTS_ROLE, albumId));
+    }
+
+    public void evictRegionals() {
+        afterCommit(cache -> {
+            cache.evictEntityData(Regional.class);
+            cache.evictQueryRegion(RegionalRepository.QUERY_CACHE_REGION);
+        });
+    }
+
+    /**
+     * Hits/misses por região (exige hibernate.generate_statistics). size é -1 quando o provedor não informa.
+     */
+    public List<CacheStatsDTO> getRegionStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+
+        Set<String> regions = new LinkedHashSet<>(List.of(statistics.getSecondLevelCacheRegionNames()));
+        regions.add(RegionalRepository.QUERY_CACHE_REGION);
+
+        List<CacheStatsDTO> result = new ArrayList<>();
+        for (String region : regions) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            long hits = stats.getHitCount();
+            long misses = stats.getMissCount();
+            result.add(CacheStatsDTO.builder()
+                    .name("hibernate:" + region)
+                    .size(stats.getElementCountInMemory())
+                    .hits(hits)
+                    .misses(misses)
+                    .hitRate(hits + misses == 0 ? 1.0 : (double) hits / (hits + misses))
+                    .evictions(0)
+                    .build());
+        }
+        return result;
+    }
+
+    private void afterCommit(Consumer<Cache> eviction) {
+        Cache cache = sessionFactory().getCache();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.accept(cache);
+                }
+            });
+        } else {
+            eviction.accept(cache);
+        }
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,240 @@
+package com.seplag.music.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.minio.BucketExistsArgs;
+import io.minio.DeleteBucketLifecycleArgs;
+import io.minio.GetBucketLifecycleArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketLifecycleArgs;
+import io.minio.SetBucketVersioningArgs;
+import io.minio.Xml;
+import io.minio.errors.ErrorResponseException;
+import io.minio.errors.XmlParserException;
+import io.minio.messages.AbortIncompleteMultipartUpload;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.NoncurrentVersionExpiration;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
+import io.minio.messages.VersioningConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Prepara o bucket uma vez, na subida: confere/cria e aplica versionamento e lifecycle
+ * (minio.bootstrap.*). Os uploads só chamam {@link #ensureReady()}, que não vai à rede depois disso.
+ * A verificação volta a rodar se o MinIO estava fora do ar na subida ou se um put recebe NoSuchBucket.
+ */
+@Component
+@Slf4j
+public class StorageBootstrap {
+
+    private static final String NO_SUCH_BUCKET = "NoSuchBucket";
+    private static final String ABORT_INCOMPLETE_UPLOADS = "abort-incomplete-uploads";
+    private static final String EXPIRE_NONCURRENT_VERSIONS = "expire-noncurrent-versions";
+    // Regras com esses IDs pertencem à aplicação; as demais são do operador e nunca são alteradas
+    private static final Set<String> MANAGED_RULES = Set.of(ABORT_INCOMPLETE_UPLOADS, EXPIRE_NONCURRENT_VERSIONS);
+
+    private final MinioClient minioClient;
+    private final MeterRegistry meterRegistry;
+    private final String bucketName;
+    private final String versioning;
+    private final Duration abortIncompleteUploadsAfter;
+    private final Duration expireNoncurrentVersionsAfter;
+
+    private volatile boolean ready;
+
+    public StorageBootstrap(MinioClient minioClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${minio.bucket-name:albums}") String bucketName,
+                            @Value("${minio.bootstrap.versioning:unchanged}") String versioning,
+                            @Value("${minio.bootstrap.abort-incomplete-uploads-after:1d}") Duration abortIncompleteUploadsAfter,
+                            @Value("${minio.bootstrap.expire-noncurrent-versions-after:0d}") Duration expireNoncurrentVersionsAfter) {
+        this.minioClient = minioClient;
+        this.meterRegistry = meterRegistry;
+        this.bucketName = bucketName;
+        this.versioning = versioning.toLowerCase(Locale.ROOT);
+        this.abortIncompleteUploadsAfter = abortIncompleteUploadsAfter;
+        this.expireNoncurrentVersionsAfter = expireNoncurrentVersionsAfter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            ensureReady();
+        } catch (RuntimeException e) {
+            // A API sobe sem o MinIO; o primeiro upload tenta de novo
+            log.warn("Bucket {} não verificado na inicialização: {}", bucketName, e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Garante que o bucket foi verificado; só acessa o MinIO enquanto isso não tiver dado certo.
+     */
+    public void ensureReady() {
+        if (ready) {
+            return;
+        }
+        synchronized (this) {
+            if (!ready) {
+                verifyBucket();
+                applyPolicies();
+                ready = true;
+            }
+        }
+    }
+
+    /**
+     * Trata um NoSuchBucket recebido numa escrita (bucket removido com a aplicação no ar):
+     * descarta a verificação anterior e recria o bucket.
+     * @return true se o erro era NoSuchBucket e o bucket foi verificado de novo
+     */
+    public boolean recoverIfBucketMissing(Exception e) {
+        if (!(e instanceof ErrorResponseException error) || error.errorResponse() == null
+                || !NO_SUCH_BUCKET.equals(error.errorResponse().code())) {
+            return false;
+        }
+        log.warn("Bucket {} não encontrado no upload; verificando novamente", bucketName);
+        ready = false;
+        ensureReady();
+        return true;
+    }
+
+    private void verifyBucket() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            boolean exists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
+            if (!exists) {
+                try {
+                    minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+                    log.info("Bucket criado: {}", bucketName);
+                } catch (ErrorResponseException e) {
+                    // Outra réplica criou o bucket entre o bucketExists e o makeBucket
+                    String code = e.errorResponse() != null ? e.errorResponse().code() : null;
+                    if (!"BucketAlreadyOwnedByYou".equals(code) && !"BucketAlreadyExists".equals(code)) {
+                        throw e;
+                    }
+                }
+            }
+            outcome = "success";
+        } catch (Exception e) {
+            // Quem chamou registra: aviso na subida, erro no upload
+            throw new RuntimeException("Erro ao gerenciar bucket: " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("music.storage.requests")
+                    .description("Chamadas ao MinIO por operação")
+                    .tag("operation", "bucket_check")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Versionamento e lifecycle são ajustes do bucket, não pré-requisitos do upload:
+     * se o MinIO recusar (ex.: credencial sem permissão), fica só o aviso no log.
+     */
+    private void applyPolicies() {
+        try {
+            if (versioning.equals("enabled") || versioning.equals("suspended")) {
+                VersioningConfiguration.Status status = versioning.equals("enabled")
+                        ? VersioningConfiguration.Status.ENABLED
+                        : VersioningConfiguration.Status.SUSPENDED;
+                minioClient.setBucketVersioning(SetBucketVersioningArgs.builder()
+                        .bucket(bucketName)
+                        .config(new VersioningConfiguration(status, null))
+                        .build());
+                log.info("Versionamento do bucket {}: {}", bucketName, status);
+            }
+
+            applyLifecycle();
+        } catch (Exception e) {
+            log.warn("Não foi possível aplicar versionamento/lifecycle ao bucket {}: {}", bucketName, e.getMessage());
+        }
+    }
+
+    /**
+     * Junta as regras da aplicação às que já estão no bucket e só grava se algo mudou:
+     * setBucketLifecycle substitui a configuração inteira, e regras criadas pelo operador precisam sobreviver
+     * a cada subida. Uma regra da aplicação desligada (0d) é retirada.
+     */
+    private void applyLifecycle() throws Exception {
+        LifecycleConfiguration current = minioClient.getBucketLifecycle(GetBucketLifecycleArgs.builder()
+                .bucket(bucketName)
+                .build());
+        List<LifecycleRule> existing = current != null && current.rules() != null ? current.rules() : List.of();
+        List<LifecycleRule> merged = mergeLifecycleRules(existing, lifecycleRules());
+        if (sameRules(existing, merged)) {
+            return;
+        }
+        if (merged.isEmpty()) {
+            minioClient.deleteBucketLifecycle(DeleteBucketLifecycleArgs.builder().bucket(bucketName).build());
+        } else {
+            minioClient.setBucketLifecycle(SetBucketLifecycleArgs.builder()
+                    .bucket(bucketName)
+                    .config(new LifecycleConfiguration(merged))
+                    .build());
+        }
+        log.info("Lifecycle do bucket {} atualizado ({} regras, {} da aplicação)", bucketName, merged.size(),
+                merged.stream().filter(rule -> MANAGED_RULES.contains(rule.id())).count());
+    }
+
+    private static List<LifecycleRule> mergeLifecycleRules(List<LifecycleRule> existing, List<LifecycleRule> managed) {
+        List<LifecycleRule> merged = new ArrayList<>();
+        existing.stream()
+                .filter(rule -> !MANAGED_RULES.contains(rule.id()))
+                .forEach(merged::add);
+        merged.addAll(managed);
+        return merged;
+    }
+
+    /**
+     * Compara pelo XML enviado ao MinIO (as classes de mensagem não implementam equals), sem depender da ordem.
+     */
+    private static boolean sameRules(List<LifecycleRule> a, List<LifecycleRule> b) throws XmlParserException {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        List<String> left = new ArrayList<>();
+        for (LifecycleRule rule : a) {
+            left.add(Xml.marshal(rule));
+        }
+        for (LifecycleRule rule : b) {
+            if (!left.remove(Xml.marshal(rule))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<LifecycleRule> lifecycleRules() {
+        List<LifecycleRule> rules = new ArrayList<>();
+        // Partes de multipart abandonadas (upload em streaming interrompido) ocupam espaço sem aparecer na listagem
+        int abortDays = (int) abortIncompleteUploadsAfter.toDays();
+        if (abortDays > 0) {
+            rules.add(new LifecycleRule(Status.ENABLED, new AbortIncompleteMultipartUpload(abortDays), null,
+                    new RuleFilter(""), ABORT_INCOMPLETE_UPLOADS, null, null, null));
+        }
+        int noncurrentDays = (int) expireNoncurrentVersionsAfter.toDays();
+        if (noncurrentDays > 0) {
+            rules.add(new LifecycleRule(Status.ENABLED, null, null, new RuleFilter(""),
+                    EXPIRE_NONCURRENT_VERSIONS, new NoncurrentVersionExpiration(noncurrentDays), null, null));
+        }
+        return rules;
+    }
+}
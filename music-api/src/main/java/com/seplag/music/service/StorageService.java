@@ -1,5 +1,10 @@
 package com.seplag.music.service;
 
+import com.seplag.music.config.SigV4Presigner;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.minio.*;
 import io.minio.errors.ErrorResponseException;
 import io.minio.errors.MinioException;
@@ -7,11 +12,14 @@ import io.minio.http.Method;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -19,6 +27,11 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class StorageService {
 
+    private static final String STORAGE_TIMER = "music.storage.requests";
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_NOT_FOUND = "not_found";
+    private static final String OUTCOME_ERROR = "error";
+
     private final MinioClient minioClient;
 
     @Value("${minio.bucket-name:albums}")
@@ -27,8 +40,39 @@ public class StorageService {
     @Value("${minio.url:http://localhost:9000}")
     private String minioUrl;
 
-    public StorageService(MinioClient minioClient) {
+    // Mínimo do S3 para multipart é 5MB
+    @Value("${minio.upload.part-size:5MB}")
+    private DataSize uploadPartSize;
+
+    private final PresignedUrlCache presignedUrlCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final StorageBootstrap storageBootstrap;
+
+    // Assinatura local (minio.region configurada); sem ela as URLs são assinadas pelo SDK
+    private final SigV4Presigner presigner;
+
+    public StorageService(MinioClient minioClient,
+                          MeterRegistry meterRegistry,
+                          StorageBootstrap storageBootstrap,
+                          Optional<SigV4Presigner> presigner,
+                          @Value("${minio.presigned-cache.max-size:10000}") int presignedCacheMaxSize,
+                          @Value("${minio.presigned-cache.refresh-fraction:0.5}") double presignedCacheRefreshFraction) {
         this.minioClient = minioClient;
+        this.meterRegistry = meterRegistry;
+        this.storageBootstrap = storageBootstrap;
+        this.presigner = presigner.orElse(null);
+        this.presignedUrlCache = new PresignedUrlCache(presignedCacheMaxSize, presignedCacheRefreshFraction);
+
+        FunctionCounter.builder("music.storage.presigned.cache", presignedUrlCache, PresignedUrlCache::getHits)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("music.storage.presigned.cache", presignedUrlCache, PresignedUrlCache::getMisses)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("music.storage.presigned.cache.evictions", presignedUrlCache, PresignedUrlCache::getEvictions)
+                .register(meterRegistry);
+        Gauge.builder("music.storage.presigned.cache.size", presignedUrlCache, PresignedUrlCache::size)
+                .register(meterRegistry);
     }
 
     /**
@@ -36,20 +80,42 @@ public class StorageService {
      * Retorna o objectName (nome usado no bucket).
      */
     public String uploadFile(MultipartFile file, String objectName) {
+        try (InputStream is = file.getInputStream()) {
+            return uploadStream(is, file.getSize(), file.getContentType(), objectName);
+        } catch (IOException e) {
+            log.error("Erro ao ler arquivo para upload: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao fazer upload: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Faz upload direto de um stream para o MinIO, sem bufferizar o arquivo inteiro.
+     * Com tamanho desconhecido (-1) usa multipart com o part size configurado
+     * (minio.upload.part-size), mantendo no máximo uma parte em memória.
+     */
+    public String uploadStream(InputStream is, long size, String contentType, String objectName) {
+        Timer.Sample sample = null;
+        String outcome = OUTCOME_ERROR;
         try {
-            ensureBucketExists();
-
-            try (InputStream is = file.getInputStream()) {
-                minioClient.putObject(
-                        PutObjectArgs.builder()
-                                .bucket(bucketName)
-                                .object(objectName)
-                                .stream(is, file.getSize(), -1)
-                                .contentType(file.getContentType())
-                                .build()
-                );
+            storageBootstrap.ensureReady();
+            // Conteúdo pequeno e rebobinável pode ser reenviado se o bucket tiver sumido
+            boolean replayable = size >= 0 && size <= uploadPartSize.toBytes() && is.markSupported();
+            if (replayable) {
+                is.mark((int) size + 1);
+            }
+
+            sample = Timer.start(meterRegistry);
+            try {
+                putObject(is, size, contentType, objectName);
+            } catch (ErrorResponseException e) {
+                if (!storageBootstrap.recoverIfBucketMissing(e) || !replayable) {
+                    throw e;
+                }
+                is.reset();
+                putObject(is, size, contentType, objectName);
             }
 
+            outcome = OUTCOME_SUCCESS;
             log.info("Arquivo enviado com sucesso: {} para bucket: {}", objectName, bucketName);
             return objectName;
 
@@ -59,9 +125,24 @@ public class StorageService {
         } catch (Exception e) {
             log.error("Erro inesperado ao fazer upload: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao fazer upload: " + e.getMessage(), e);
+        } finally {
+            if (sample != null) {
+                record(sample, "put", outcome);
+            }
         }
     }
 
+    private void putObject(InputStream is, long size, String contentType, String objectName) throws Exception {
+        minioClient.putObject(
+                PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .stream(is, size, size < 0 ? uploadPartSize.toBytes() : -1)
+                        .contentType(contentType)
+                        .build()
+        );
+    }
+
     /**
      * Gera um objectName único para armazenar o arquivo no bucket.
      * Exemplo: "d290f1ee-6c54-4b01-90e6-XXXXXXXX_originalName.jpg"
@@ -83,26 +164,83 @@ public class StorageService {
 
     /**
      * Gera uma URL assinada com tempo customizável.
+     * URLs já assinadas são reaproveitadas do cache enquanto não tiverem consumido
+     * a fração configurada (minio.presigned-cache.refresh-fraction) da validade.
      * @param objectName nome do objeto no bucket
      * @param duration duração (ex: 1)
      * @param timeUnit unidade de tempo (ex: TimeUnit.HOURS)
      * @return URL pré-assinada
      */
     public String getPresignedUrl(String objectName, int duration, TimeUnit timeUnit) {
+        // Converter duração para segundos (algumas versões do SDK aceitam segundos)
+        int expiryInSeconds = (int) timeUnit.toSeconds(duration);
+        return presignedUrlCache.get(objectName, expiryInSeconds, () -> signPresignedUrl(objectName, expiryInSeconds));
+    }
+
+    /**
+     * Gera uma URL assinada de PUT para o cliente enviar o arquivo direto ao storage.
+     * Não passa pelo cache: cada autorização de upload é única.
+     */
+    public String getPresignedUploadUrl(String objectName, int expiryInSeconds) {
+        Timer.Sample sample = null;
+        String outcome = OUTCOME_ERROR;
         try {
-            // Converter duração para segundos (algumas versões do SDK aceitam segundos)
-            int expiryInSeconds = (int) timeUnit.toSeconds(duration);
+            storageBootstrap.ensureReady();
 
-            String url = minioClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .method(Method.GET)
-                            .bucket(bucketName)
-                            .object(objectName)
-                            .expiry(expiryInSeconds)
-                            .build()
-            );
+            sample = Timer.start(meterRegistry);
+            String url = presigner != null
+                    ? presigner.presign("PUT", bucketName, objectName, expiryInSeconds)
+                    : minioClient.getPresignedObjectUrl(
+                            GetPresignedObjectUrlArgs.builder()
+                                    .method(Method.PUT)
+                                    .bucket(bucketName)
+                                    .object(objectName)
+                                    .expiry(expiryInSeconds)
+                                    .build()
+                    );
+
+            outcome = OUTCOME_SUCCESS;
+            log.debug("URL presigned de upload gerada para: {} (expiry {}s)", objectName, expiryInSeconds);
+            return url;
+
+        } catch (MinioException e) {
+            log.error("Erro ao gerar presigned URL de upload (MinioException) para {}: {}", objectName, e.getMessage(), e);
+            throw new RuntimeException("Erro ao gerar presigned URL de upload: " + e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Erro inesperado ao gerar presigned URL de upload: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao gerar presigned URL de upload: " + e.getMessage(), e);
+        } finally {
+            if (sample != null) {
+                record(sample, "presign_put", outcome);
+            }
+        }
+    }
+
+    /**
+     * Retorna a URL presigned padrão (7 dias) somente se já estiver em cache; null caso contrário.
+     * Permite resolver URLs em lote assinando apenas as que faltam.
+     */
+    public String getCachedPresignedUrl(String objectName) {
+        return presignedUrlCache.getIfFresh(objectName, TimeUnit.DAYS.toSeconds(7));
+    }
 
-            log.debug("URL presigned gerada para: {} (expiry {} {})", objectName, duration, timeUnit);
+    private String signPresignedUrl(String objectName, int expiryInSeconds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            String url = presigner != null
+                    ? presigner.presign("GET", bucketName, objectName, expiryInSeconds)
+                    : minioClient.getPresignedObjectUrl(
+                            GetPresignedObjectUrlArgs.builder()
+                                    .method(Method.GET)
+                                    .bucket(bucketName)
+                                    .object(objectName)
+                                    .expiry(expiryInSeconds)
+                                    .build()
+                    );
+
+            outcome = OUTCOME_SUCCESS;
+            log.debug("URL presigned gerada para: {} (expiry {}s)", objectName, expiryInSeconds);
             return url;
 
         } catch (ErrorResponseException e) {
@@ -116,6 +254,8 @@ public class StorageService {
         } catch (Exception e) {
             log.error("Erro inesperado ao gerar presigned URL: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao gerar presigned URL: " + e.getMessage(), e);
+        } finally {
+            record(sample, "presign", outcome);
         }
     }
 
@@ -131,6 +271,8 @@ public class StorageService {
      * Deleta um arquivo do MinIO.
      */
     public void deleteFile(String objectName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
         try {
             minioClient.removeObject(
                     RemoveObjectArgs.builder()
@@ -139,6 +281,8 @@ public class StorageService {
                             .build()
             );
 
+            outcome = OUTCOME_SUCCESS;
+            presignedUrlCache.evict(objectName);
             log.info("Arquivo deletado com sucesso: {}", objectName);
 
         } catch (MinioException e) {
@@ -147,26 +291,55 @@ public class StorageService {
         } catch (Exception e) {
             log.error("Erro inesperado ao deletar arquivo: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao deletar arquivo: " + e.getMessage(), e);
+        } finally {
+            record(sample, "remove", outcome);
         }
     }
 
+    public long getPresignedCacheHits() {
+        return presignedUrlCache.getHits();
+    }
+
+    public long getPresignedCacheMisses() {
+        return presignedUrlCache.getMisses();
+    }
+
+    public long getPresignedCacheEvictions() {
+        return presignedUrlCache.getEvictions();
+    }
+
+    public int getPresignedCacheSize() {
+        return presignedUrlCache.size();
+    }
+
     /**
      * Verifica se um arquivo existe no MinIO.
      */
     public boolean fileExists(String objectName) {
+        return statFile(objectName).isPresent();
+    }
+
+    /**
+     * Retorna os metadados (tamanho, content-type, etag) do objeto, ou vazio se não existir.
+     */
+    public Optional<StatObjectResponse> statFile(String objectName) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
         try {
-            minioClient.statObject(
+            StatObjectResponse stat = minioClient.statObject(
                     StatObjectArgs.builder()
                             .bucket(bucketName)
                             .object(objectName)
                             .build()
             );
-            return true;
+            outcome = OUTCOME_SUCCESS;
+            return Optional.of(stat);
 
         } catch (ErrorResponseException e) {
             // Se o servidor retornar 404, ErrorResponseException pode indicar isso
             if (e.errorResponse() != null && "NoSuchKey".equalsIgnoreCase(e.errorResponse().code())) {
-                return false;
+                outcome = OUTCOME_NOT_FOUND;
+                return Optional.empty();
             }
             log.error("Erro de resposta ao verificar arquivo {}: {}", objectName, e.getMessage(), e);
             throw new RuntimeException("Erro ao verificar arquivo: " + e.getMessage(), e);
@@ -174,32 +347,65 @@ public class StorageService {
             // Algumas versões retornam MinioException para 404 — checar mensagem
             String msg = e.getMessage() != null ? e.getMessage() : "";
             if (msg.contains("404") || msg.toLowerCase().contains("not found")) {
-                return false;
+                outcome = OUTCOME_NOT_FOUND;
+                return Optional.empty();
             }
             log.error("Erro ao verificar existência do arquivo (MinioException): {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao verificar arquivo: " + e.getMessage(), e);
         } catch (Exception e) {
             log.error("Erro inesperado ao verificar arquivo: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao verificar arquivo: " + e.getMessage(), e);
+        } finally {
+            record(sample, "stat", outcome);
         }
     }
 
     /**
-     * Garante que o bucket exista; cria caso não exista.
+     * Abre o conteúdo do objeto para leitura; o chamador deve fechar o stream.
      */
-    private void ensureBucketExists() {
+    public InputStream downloadFile(String objectName) {
+        return downloadFile(objectName, 0, -1);
+    }
+
+    /**
+     * Abre um trecho do objeto (GET com Range); length -1 lê até o fim.
+     */
+    public InputStream downloadFile(String objectName, long offset, long length) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
         try {
-            boolean exists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build());
-            if (!exists) {
-                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
-                log.info("Bucket criado: {}", bucketName);
+            GetObjectArgs.Builder args = GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName);
+            if (offset > 0 || length >= 0) {
+                args.offset(offset);
+                if (length >= 0) {
+                    args.length(length);
+                }
             }
+            InputStream is = minioClient.getObject(args.build());
+            outcome = OUTCOME_SUCCESS;
+            return is;
         } catch (MinioException e) {
-            log.error("Erro ao verificar/criar bucket (MinioException): {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao gerenciar bucket: " + e.getMessage(), e);
+            log.error("Erro ao baixar arquivo (MinioException): {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao baixar arquivo: " + e.getMessage(), e);
         } catch (Exception e) {
-            log.error("Erro inesperado ao gerenciar bucket: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao gerenciar bucket: " + e.getMessage(), e);
+            log.error("Erro inesperado ao baixar arquivo: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao baixar arquivo: " + e.getMessage(), e);
+        } finally {
+            // Mede até a resposta abrir; a leitura do corpo fica com o chamador
+            record(sample, "get", outcome);
         }
     }
+
+    /**
+     * Registra a latência de uma chamada ao MinIO em music.storage.requests (tags operation e outcome).
+     */
+    private void record(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder(STORAGE_TIMER)
+                .description("Chamadas ao MinIO por operação")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+-- VARIANTES REDIMENSIONADAS DAS CAPAS (miniaturas geradas após o upload)
+CREATE TABLE IF NOT EXISTS album_cover_variant (
+    id BIGSERIAL PRIMARY KEY,
+    cover_id BIGINT NOT NULL REFERENCES album_cover(id) ON DELETE CASCADE,
+    variant VARCHAR(20) NOT NULL, -- lado maior em px (ex: 64, 256, 1024)
+    width INTEGER NOT NULL,
+    height INTEGER NOT NULL,
+    object_name VARCHAR(255) NOT NULL, -- caminho da variante no MinIO
+    content_type VARCHAR(100),
+    file_size BIGINT,
+    created_at TIMESTAMP DEFAULT NOW(),
+    CONSTRAINT uk_album_cover_variant UNIQUE (cover_id, variant)
+);
@@ -0,0 +1,25 @@
+-- OBJETOS DE CAPA ENDEREÇADOS POR CONTEÚDO
+-- Capas com os mesmos bytes apontam para o mesmo objeto (covers/xx/{sha256}); o objeto só sai do storage
+-- quando a última referência é removida.
+CREATE TABLE IF NOT EXISTS cover_blob (
+    object_name VARCHAR(255) PRIMARY KEY,
+    ref_count INTEGER NOT NULL, -- capas (e uploads em andamento) que apontam para o objeto
+    stored BOOLEAN NOT NULL DEFAULT FALSE, -- objeto já gravado no storage
+    created_at TIMESTAMP DEFAULT NOW()
+);
+
+-- Objetos já existentes: uma referência por capa
+INSERT INTO cover_blob (object_name, ref_count, stored)
+SELECT object_name, COUNT(*), TRUE
+FROM album_cover
+WHERE object_name <> 'unknown'
+GROUP BY object_name
+ON CONFLICT (object_name) DO NOTHING;
+
+-- Várias capas podem compartilhar o objeto; a unicidade da confirmação de upload direto passa para cover_blob
+DROP INDEX IF EXISTS uk_album_cover_object_name;
+CREATE INDEX IF NOT EXISTS idx_album_cover_object_name ON album_cover (object_name);
+
+-- Reaproveitamento de variantes de uma capa com o mesmo conteúdo (busca por prefixo do objectName)
+CREATE INDEX IF NOT EXISTS idx_album_cover_variant_object_name
+    ON album_cover_variant (object_name varchar_pattern_ops);
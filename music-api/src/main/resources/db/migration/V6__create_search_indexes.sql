@@ -0,0 +1,10 @@
+-- ============================================
+-- V6 - ÍNDICES DE BUSCA (pg_trgm)
+-- ============================================
+
+-- Trigramas permitem que LIKE '%termo%' e a busca por similaridade usem índice
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- As expressões precisam bater com as consultas (LOWER(coluna))
+CREATE INDEX IF NOT EXISTS idx_album_title_trgm ON album USING gin (LOWER(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_artist_name_trgm ON artist USING gin (LOWER(name) gin_trgm_ops);
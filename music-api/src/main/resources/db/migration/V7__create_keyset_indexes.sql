@@ -0,0 +1,11 @@
+-- ============================================
+-- V7 - ÍNDICES PARA PAGINAÇÃO POR CURSOR (keyset)
+-- ============================================
+
+-- Chaves de ordenação (title, id) / (name, id) usadas no modo ?after=&limit=
+CREATE INDEX IF NOT EXISTS idx_album_title_id ON album (title, id);
+CREATE INDEX IF NOT EXISTS idx_artist_name_id ON artist (name, id);
+
+-- A PK (artist_id, album_id) atende o filtro por artista; a carga de artistas
+-- por página de álbuns consulta artist_album pelo album_id
+CREATE INDEX IF NOT EXISTS idx_artist_album_album_id ON artist_album (album_id);
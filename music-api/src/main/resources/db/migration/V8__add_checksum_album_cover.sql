@@ -0,0 +1,2 @@
+-- SHA-256 (hex) do conteúdo da capa, calculado durante o upload
+ALTER TABLE album_cover ADD COLUMN IF NOT EXISTS checksum VARCHAR(64);
@@ -0,0 +1,5 @@
+-- Um objeto do storage só pode ser registrado uma vez (confirmação de upload direto é idempotente).
+-- Linhas antigas com o valor padrão 'unknown' (V4) ficam fora do índice.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_album_cover_object_name
+    ON album_cover (object_name)
+    WHERE object_name <> 'unknown';
@@ -0,0 +1,101 @@
+package com.seplag.music.config;
+
+import com.seplag.music.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedDataSourceTest {
+
+    @Test
+    void holdsPermitUntilConnectionIsClosed() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("database", 2, Duration.ofMillis(10));
+        BoundedDataSource dataSource = new BoundedDataSource(target, limiter);
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        assertEquals(2, limiter.getInUse());
+
+        first.close();
+        first.close();
+        assertEquals(1, limiter.getInUse());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void rejectsWhenNoPermitWithinTimeout() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("database", 1, Duration.ofMillis(10));
+        BoundedDataSource dataSource = new BoundedDataSource(target, limiter);
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void timesWaitForPermitIncludingRejections() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("database", 1, Duration.ofMillis(20));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+        BoundedDataSource dataSource = new BoundedDataSource(target, limiter);
+
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        Timer acquire = registry.get("music.concurrency.acquire").tag("resource", "database").timer();
+        assertEquals(2, acquire.count());
+        assertTrue(acquire.max(TimeUnit.MILLISECONDS) >= 20);
+    }
+
+    @Test
+    void newCallerDoesNotOvertakeQueuedWaiter() throws InterruptedException {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("database", 1, Duration.ofMillis(500));
+        limiter.acquire();
+        Thread waiter = new Thread(limiter::acquire);
+        waiter.start();
+        // Já estacionada na fila: só volta a tentar quando for acordada
+        while (limiter.getWaiting() == 0 || waiter.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        // A permissão liberada é da thread que já estava na fila, não de quem chega depois
+        limiter.release();
+        assertThrows(ConcurrencyLimitExceededException.class, limiter::acquire);
+        waiter.join(5000);
+        assertEquals(1, limiter.getInUse());
+    }
+
+    @Test
+    void releasesPermitWhenPoolFails() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool indisponível"));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("database", 1, Duration.ofMillis(10));
+        BoundedDataSource dataSource = new BoundedDataSource(target, limiter);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, limiter.getInUse());
+    }
+}
@@ -0,0 +1,41 @@
+package com.seplag.music.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Os pools da aplicação não podem suprimir o applicationTaskExecutor (usado pelo MVC assíncrono).
+ */
+class ExecutorConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(ExecutorConfig.class);
+
+    @Test
+    void keepsBoundedApplicationTaskExecutor() {
+        runner.withPropertyValues("spring.task.execution.pool.core-size=2", "spring.task.execution.pool.max-size=4").run(context -> {
+            assertThat(context).getBean("applicationTaskExecutor").isInstanceOf(ThreadPoolTaskExecutor.class);
+            assertThat(context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class).getMaxPoolSize())
+                    .isEqualTo(4);
+            assertThat(context).hasBean("coverUrlExecutor");
+        });
+    }
+
+    @Test
+    void usesVirtualThreadsWhenEnabled() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            if (Runtime.version().feature() >= 21) {
+                assertThat(context).getBean("applicationTaskExecutor").isInstanceOf(SimpleAsyncTaskExecutor.class);
+            } else {
+                assertThat(context).getBean("applicationTaskExecutor").isInstanceOf(ThreadPoolTaskExecutor.class);
+            }
+        });
+    }
+}
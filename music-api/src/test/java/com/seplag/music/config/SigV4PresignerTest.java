@@ -0,0 +1,64 @@
+package com.seplag.music.config;
+
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import io.minio.http.Method;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A assinatura local precisa sair idêntica à do SDK, caractere por caractere.
+ */
+class SigV4PresignerTest {
+
+    private static final Pattern AMZ_DATE = Pattern.compile("X-Amz-Date=(\\d{8}T\\d{6}Z)");
+    private static final DateTimeFormatter AMZ_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private static final List<String> OBJECT_NAMES = List.of(
+            "albums/1/00000000-0000-4000-8000-000000000001.jpg",
+            "d290f1ee-6c54-4b01-90e6-d701748f0851_capa%20nova%C3%A7%C3%A3o.jpg",
+            "pasta com espaço/açaí*+~!'()=&$@,;:.png",
+            "emoji-🎵/x.webp");
+
+    @Test
+    void matchesSdkForGetAndPut() throws Exception {
+        assertMatchesSdk("http://localhost:9000", "us-east-1");
+        assertMatchesSdk("https://storage.example.com", "sa-east-1");
+    }
+
+    private void assertMatchesSdk(String endpoint, String region) throws Exception {
+        MinioClient sdk = MinioClient.builder()
+                .endpoint(endpoint)
+                .region(region)
+                .credentials("access", "secret/key+with=chars")
+                .build();
+        SigV4Presigner presigner = new SigV4Presigner(endpoint, "access", "secret/key+with=chars", region);
+
+        for (Method method : List.of(Method.GET, Method.PUT)) {
+            for (String objectName : OBJECT_NAMES) {
+                String expected = sdk.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                        .method(method)
+                        .bucket("albums")
+                        .object(objectName)
+                        .expiry(604800)
+                        .build());
+                Matcher date = AMZ_DATE.matcher(expected);
+                assertTrue(date.find(), expected);
+
+                String actual = presigner.presign(method.name(), "albums", objectName, 604800,
+                        LocalDateTime.parse(date.group(1), AMZ_FORMAT).toInstant(ZoneOffset.UTC));
+
+                assertEquals(expected, actual, method + " " + objectName);
+            }
+        }
+    }
+}
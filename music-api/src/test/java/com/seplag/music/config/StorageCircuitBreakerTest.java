@@ -0,0 +1,92 @@
+package com.seplag.music.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StorageCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final StorageCircuitBreaker breaker = new StorageCircuitBreaker(3, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(StorageCircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejected());
+    }
+
+    @Test
+    void letsSingleProbeThroughAfterOpenDuration() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertEquals(StorageCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.recordSuccess();
+        assertEquals(StorageCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void reopensWhenProbeFails() {
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void reopensWhenProbeThrowsUnexpectedException() throws Exception {
+        StorageHttpInterceptor interceptor = new StorageHttpInterceptor(breaker, new SimpleMeterRegistry(),
+                Duration.ofSeconds(1), Duration.ofSeconds(1), 3, Duration.ZERO, Duration.ZERO);
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(new Request.Builder().url("http://minio:9000/albums/capa.png").build());
+        when(chain.withReadTimeout(anyInt(), any())).thenReturn(chain);
+        when(chain.withWriteTimeout(anyInt(), any())).thenReturn(chain);
+        when(chain.proceed(any())).thenThrow(new IllegalStateException("falha no OkHttp"));
+        openCircuit();
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThrows(IllegalStateException.class, () -> interceptor.intercept(chain));
+
+        // A chamada de teste foi liberada: o circuito reabre e volta a testar depois do prazo
+        assertTrue(breaker.isOpen());
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        assertTrue(breaker.isOpen());
+    }
+}
@@ -0,0 +1,116 @@
+package com.seplag.music.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Lotes de /topic/changes publicados em sequência precisam chegar em ordem a cada sessão,
+ * mesmo com várias threads no canal de saída (broker em memória e relay), e uma mensagem descartada
+ * por fila cheia não pode travar as seguintes da mesma sessão.
+ */
+class WebSocketConfigTest {
+
+    private final WebApplicationContextRunner runner = new WebApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(WebSocketConfig.class);
+
+    @Test
+    void simpleBrokerPreservesPublishOrder() {
+        runner.run(context -> assertThat(context.getBean("simpleBrokerMessageHandler", AbstractBrokerMessageHandler.class)
+                .isPreservePublishOrder()).isTrue());
+    }
+
+    @Test
+    void relayPreservesPublishOrder() {
+        runner.withPropertyValues("app.websocket.broker=relay", "app.websocket.relay.port=1")
+                .run(context -> assertThat(context.getBean("stompBrokerRelayMessageHandler", AbstractBrokerMessageHandler.class)
+                        .isPreservePublishOrder()).isTrue());
+    }
+
+    @Test
+    void sessionKeepsReceivingAfterOutboundQueueOverflow() {
+        runner.withPropertyValues("app.websocket.outbound.threads=1", "app.websocket.outbound.queue-capacity=1")
+                .run(context -> {
+                    AbstractBrokerMessageHandler broker = context.getBean("simpleBrokerMessageHandler",
+                            AbstractBrokerMessageHandler.class);
+                    ExecutorSubscribableChannel outbound = context.getBean("clientOutboundChannel",
+                            ExecutorSubscribableChannel.class);
+                    SimpMessagingTemplate template = context.getBean("brokerMessagingTemplate", SimpMessagingTemplate.class);
+
+                    // Sessão "lenta" segura a única thread do outbound até o latch abrir
+                    CountDownLatch busy = new CountDownLatch(1);
+                    CountDownLatch release = new CountDownLatch(1);
+                    List<String> delivered = new CopyOnWriteArrayList<>();
+                    List.copyOf(outbound.getSubscribers()).forEach(outbound::unsubscribe);
+                    outbound.subscribe(message -> {
+                        String session = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.CONNECT_ACK) {
+                            delivered.add(session + ":connected");
+                            return;
+                        }
+                        if ("slow".equals(session)) {
+                            busy.countDown();
+                            awaitQuietly(release);
+                        }
+                        delivered.add(session + ":" + new String((byte[]) message.getPayload()));
+                    });
+                    for (String session : List.of("slow", "queued", "client")) {
+                        broker.handleMessage(stomp(SimpMessageType.CONNECT, session));
+                        await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.contains(session + ":connected"));
+                        broker.handleMessage(stomp(SimpMessageType.SUBSCRIBE, session));
+                    }
+
+                    template.convertAndSend("/topic/slow", "1");
+                    assertThat(busy.await(5, TimeUnit.SECONDS)).isTrue();
+                    template.convertAndSend("/topic/queued", "1");
+                    // Thread ocupada e fila cheia: recusada e descartada
+                    template.convertAndSend("/topic/client", "1");
+                    release.countDown();
+                    await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.contains("queued:1"));
+                    template.convertAndSend("/topic/client", "2");
+
+                    await().atMost(5, TimeUnit.SECONDS).until(() -> delivered.contains("client:2"));
+                    assertThat(delivered).doesNotContain("client:1");
+                    assertThat(context.getBean(MeterRegistry.class).counter("music.websocket.dropped", "channel", "outbound")
+                            .count()).isEqualTo(1);
+                });
+    }
+
+    private static Message<byte[]> stomp(SimpMessageType type, String session) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(type);
+        headers.setSessionId(session);
+        if (type == SimpMessageType.SUBSCRIBE) {
+            headers.setSubscriptionId("sub-" + session);
+            headers.setDestination("/topic/" + session);
+        }
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.seplag.music.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtProviderTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-32-characters-for-hmac";
+
+    private JwtProvider provider(long expirationMs) {
+        return provider(expirationMs, new SimpleMeterRegistry());
+    }
+
+    private JwtProvider provider(long expirationMs, MeterRegistry registry) {
+        JwtProvider provider = new JwtProvider(registry);
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "refreshTokenExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", 100);
+        ReflectionTestUtils.setField(provider, "invalidLogInterval", Duration.ofMinutes(1));
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    void authenticatesWithSingleParseAndCachesClaims() {
+        JwtProvider provider = provider(60_000);
+        String token = provider.generateAccessToken("maria", "ADMIN");
+
+        JwtProvider.TokenClaims claims = provider.authenticate(token).orElseThrow();
+
+        assertEquals("maria", claims.username());
+        assertEquals("ADMIN", claims.role());
+        assertEquals(1, provider.getClaimsCacheSize());
+        assertEquals(claims, provider.authenticate(token).orElseThrow());
+    }
+
+    @Test
+    void rejectsTamperedTokenWithoutCaching() {
+        JwtProvider provider = provider(60_000);
+        String token = provider.generateAccessToken("maria", "USER");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(provider.authenticate(tampered).isEmpty());
+        assertEquals(0, provider.getClaimsCacheSize());
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        JwtProvider provider = provider(-1_000);
+        String token = provider.generateAccessToken("maria", "USER");
+
+        assertTrue(provider.authenticate(token).isEmpty());
+    }
+
+    @Test
+    void recordsParseOnlyOnCacheMiss() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        JwtProvider provider = provider(60_000, registry);
+        String token = provider.generateAccessToken("maria", "USER");
+
+        provider.authenticate(token);
+        provider.authenticate(token);
+        provider.authenticate("not-a-jwt");
+
+        assertEquals(1, registry.get("music.jwt.parse").tag("outcome", "valid").timer().count());
+        assertEquals(1, registry.get("music.jwt.parse").tag("outcome", "invalid").timer().count());
+        assertEquals(1, registry.get("music.jwt.claims.cache.hits").counter().count());
+    }
+
+    @Test
+    void countsInvalidTokensByReason() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        JwtProvider provider = provider(60_000, registry);
+        String expired = provider(-1_000).generateAccessToken("maria", "USER");
+        JwtProvider foreignIssuer = provider(60_000);
+        ReflectionTestUtils.setField(foreignIssuer, "jwtSecret", SECRET.replace('t', 'x'));
+        foreignIssuer.init();
+        String foreign = foreignIssuer.generateAccessToken("maria", "USER");
+
+        provider.authenticate("not-a-jwt");
+        provider.authenticate("not-a-jwt");
+        provider.authenticate(foreign);
+        provider.authenticate(expired);
+
+        assertEquals(2, registry.get("music.jwt.invalid").tag("reason", "malformed").counter().count());
+        assertEquals(1, registry.get("music.jwt.invalid").tag("reason", "signature").counter().count());
+        assertEquals(1, registry.get("music.jwt.invalid").tag("reason", "expired").counter().count());
+    }
+}
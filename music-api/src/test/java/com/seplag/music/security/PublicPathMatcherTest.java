@@ -0,0 +1,23 @@
+package com.seplag.music.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PublicPathMatcherTest {
+
+    @Test
+    void matchesPublicPrefixesOnly() {
+        assertTrue(JwtAuthenticationFilter.isPublicEndpoint("/api/v1/auth/login"));
+        assertTrue(JwtAuthenticationFilter.isPublicEndpoint("/swagger-ui/index.html"));
+        assertTrue(JwtAuthenticationFilter.isPublicEndpoint("/v3/api-docs/swagger-config"));
+        assertTrue(JwtAuthenticationFilter.isPublicEndpoint("/actuator/health/liveness"));
+
+        assertFalse(JwtAuthenticationFilter.isPublicEndpoint("/api/v1/albums"));
+        assertFalse(JwtAuthenticationFilter.isPublicEndpoint("/api/v1/albums/swagger"));
+        assertFalse(JwtAuthenticationFilter.isPublicEndpoint("/actuator/metrics"));
+        assertFalse(JwtAuthenticationFilter.isPublicEndpoint("/"));
+        assertFalse(JwtAuthenticationFilter.isPublicEndpoint(""));
+    }
+}
@@ -0,0 +1,102 @@
+package com.seplag.music.service;
+
+import com.seplag.music.config.CacheConfig;
+import com.seplag.music.domain.dto.AlbumCoverDTO;
+import com.seplag.music.domain.dto.AlbumDTO;
+import com.seplag.music.domain.dto.AlbumMapper;
+import com.seplag.music.domain.model.Album;
+import com.seplag.music.domain.model.AlbumCover;
+import com.seplag.music.repository.AlbumCoverRepository;
+import com.seplag.music.repository.AlbumRepository;
+import com.seplag.music.repository.ArtistRepository;
+import com.seplag.music.repository.CoverBlobRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlbumServiceTest {
+
+    @Test
+    void deletingAlbumReleasesCoverReferencesBeforeCascade() {
+        AlbumRepository albumRepository = mock(AlbumRepository.class);
+        AlbumCoverRepository coverRepository = mock(AlbumCoverRepository.class);
+        StorageService storageService = mock(StorageService.class);
+        CoverDerivativeService derivativeService = mock(CoverDerivativeService.class);
+        ContentAddressedCoverStore contentStore = mock(ContentAddressedCoverStore.class);
+
+        AlbumCover shared = AlbumCover.builder().id(1L).objectName("covers/ab/shared").build();
+        AlbumCover own = AlbumCover.builder().id(2L).objectName("covers/cd/own").build();
+        when(albumRepository.existsById(9L)).thenReturn(true);
+        when(coverRepository.findByAlbumId(9L)).thenReturn(List.of(shared, own));
+        when(contentStore.releaseReference("covers/ab/shared")).thenReturn(false);
+        when(contentStore.releaseReference("covers/cd/own")).thenReturn(true);
+
+        AlbumCoverService albumCoverService = new AlbumCoverService(coverRepository, albumRepository, storageService,
+                mock(CoverUrlResolver.class), mock(TransactionTemplate.class), derivativeService,
+                mock(ChangeNotificationService.class), contentStore, mock(CoverBlobRepository.class));
+        AlbumService albumService = new AlbumService(albumRepository, mock(ArtistRepository.class),
+                mock(AlbumMapper.class), mock(SimpMessagingTemplate.class), mock(CoverUrlResolver.class),
+                derivativeService, albumCoverService, mock(AlbumPageAssembler.class),
+                mock(ChangeNotificationService.class), mock(SecondLevelCacheService.class),
+                new ConcurrentMapCacheManager(CacheConfig.ALBUM_DETAIL));
+
+        albumService.delete(9L);
+
+        // Objeto compartilhado fica; o último uso leva original e variantes, tudo antes do delete em cascata
+        verify(storageService, never()).deleteFile("covers/ab/shared");
+        verify(derivativeService, never()).deleteVariantObjects(1L);
+        InOrder order = inOrder(contentStore, derivativeService, storageService, albumRepository);
+        order.verify(contentStore).releaseReference("covers/cd/own");
+        order.verify(derivativeService).deleteVariantObjects(2L);
+        order.verify(storageService).deleteFile("covers/cd/own");
+        order.verify(albumRepository).deleteById(9L);
+    }
+
+    @Test
+    void cachedDetailResolvesUrlsOnEveryRead() {
+        AlbumRepository albumRepository = mock(AlbumRepository.class);
+        AlbumMapper albumMapper = mock(AlbumMapper.class);
+        CoverUrlResolver resolver = mock(CoverUrlResolver.class);
+        CoverDerivativeService derivativeService = mock(CoverDerivativeService.class);
+        Album album = Album.builder().id(5L).build();
+        when(albumRepository.findById(5L)).thenReturn(Optional.of(album));
+        AlbumCoverDTO cover = AlbumCoverDTO.builder().id(3L).objectName("covers/ab/x").build();
+        when(albumMapper.toDTO(album)).thenReturn(AlbumDTO.builder().id(5L)
+                .covers(new LinkedHashSet<>(Set.of(cover))).build());
+        when(derivativeService.variantObjectNames(anyList())).thenReturn(Map.of());
+        // Primeira leitura degradada (URL pública), segunda já assinada
+        when(resolver.resolveAll(anyList()))
+                .thenReturn(Map.of("covers/ab/x", "public/x"))
+                .thenReturn(Map.of("covers/ab/x", "signed/x"));
+
+        AlbumService albumService = new AlbumService(albumRepository, mock(ArtistRepository.class), albumMapper,
+                mock(SimpMessagingTemplate.class), resolver, derivativeService, mock(AlbumCoverService.class),
+                mock(AlbumPageAssembler.class), mock(ChangeNotificationService.class),
+                mock(SecondLevelCacheService.class), new ConcurrentMapCacheManager(CacheConfig.ALBUM_DETAIL));
+
+        assertEquals("public/x", albumService.findById(5L).getCovers().iterator().next().getUrl());
+        assertEquals("signed/x", albumService.findById(5L).getCovers().iterator().next().getUrl());
+
+        // Montagem do banco só uma vez, e o DTO em cache segue sem URL
+        verify(albumRepository, times(1)).findById(5L);
+        assertNull(cover.getUrl());
+    }
+}
@@ -0,0 +1,81 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.dto.ChangeBatchDTO;
+import com.seplag.music.service.ChangeNotificationService.Entity;
+import com.seplag.music.service.ChangeNotificationService.Op;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ChangeNotificationServiceTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+
+    private ChangeNotificationService service(int maxBatchSize, int maxPending) {
+        return new ChangeNotificationService(messagingTemplate, scheduler, new SimpleMeterRegistry(),
+                true, Duration.ofMillis(200), maxBatchSize, maxPending);
+    }
+
+    private List<ChangeBatchDTO> published(int count) {
+        ArgumentCaptor<ChangeBatchDTO> captor = ArgumentCaptor.forClass(ChangeBatchDTO.class);
+        verify(messagingTemplate, times(count)).convertAndSend(eq(ChangeNotificationService.TOPIC), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void coalescesChangesPerEntityWithinWindow() {
+        ChangeNotificationService service = service(500, 100);
+
+        service.record(Entity.ALBUM, 1L, Op.CREATED);
+        service.record(Entity.ALBUM, 1L, Op.UPDATED);
+        service.record(Entity.ALBUM, 2L, Op.UPDATED);
+        service.record(Entity.ALBUM, 2L, Op.COVERS);
+        service.record(Entity.ALBUM, 2L, Op.DELETED);
+        service.record(Entity.ARTIST, 3L, Op.CREATED);
+        service.record(Entity.ARTIST, 3L, Op.DELETED);
+        service.flush();
+
+        verify(scheduler).schedule(any(Runnable.class), any(Instant.class));
+        ChangeBatchDTO batch = published(1).get(0);
+        assertEquals(1, batch.getSequence());
+        assertEquals(List.of(
+                new ChangeBatchDTO.ChangeDTO("album", 1L, "created"),
+                new ChangeBatchDTO.ChangeDTO("album", 2L, "deleted")), batch.getChanges());
+    }
+
+    @Test
+    void splitsIntoNumberedBatchesAndFallsBackToResync() {
+        ChangeNotificationService service = service(2, 4);
+
+        for (long id = 1; id <= 3; id++) {
+            service.record(Entity.ALBUM, id, Op.UPDATED);
+        }
+        service.flush();
+        for (long id = 1; id <= 5; id++) {
+            service.record(Entity.ARTIST, id, Op.UPDATED);
+        }
+        service.flush();
+
+        List<ChangeBatchDTO> batches = published(3);
+        assertEquals(List.of(1L, 2L, 3L), batches.stream().map(ChangeBatchDTO::getSequence).toList());
+        assertEquals(2, batches.get(0).getChanges().size());
+        assertEquals(1, batches.get(1).getChanges().size());
+        assertTrue(batches.get(2).isResync());
+        assertTrue(batches.get(2).getChanges().isEmpty());
+    }
+}
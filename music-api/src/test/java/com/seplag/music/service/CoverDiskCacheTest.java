@@ -0,0 +1,44 @@
+package com.seplag.music.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoverDiskCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void openChannelSurvivesEvictionByAnotherLoad() throws Exception {
+        StorageService storageService = mock(StorageService.class);
+        when(storageService.downloadFile(anyString())).thenAnswer(inv ->
+                new ByteArrayInputStream(("conteudo-" + inv.getArgument(0)).getBytes(StandardCharsets.US_ASCII)));
+        // Cabe um arquivo por vez: o segundo load descarta o primeiro
+        CoverDiskCache cache = new CoverDiskCache(storageService, new SimpleMeterRegistry(), true, directory,
+                DataSize.ofBytes(12), DataSize.ofBytes(12));
+
+        try (FileChannel first = cache.open("a", 10).orElseThrow()) {
+            cache.open("b", 10).orElseThrow().close();
+            assertFalse(Files.exists(directory.resolve(CoverDiskCache.key("a"))));
+
+            ByteBuffer buffer = ByteBuffer.allocate(32);
+            first.read(buffer, 0);
+            assertEquals("conteudo-a", new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.seplag.music.service;
+
+import com.seplag.music.domain.model.Album;
+import com.seplag.music.domain.model.AlbumCover;
+import com.seplag.music.domain.model.AlbumCoverVariant;
+import com.seplag.music.repository.AlbumCoverRepository;
+import com.seplag.music.repository.AlbumCoverVariantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.StatObjectResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CoverImageServiceTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final String ETAG = "\"abc123\"";
+
+    @TempDir
+    Path cacheDir;
+
+    private StorageService storageService;
+    private AlbumCoverVariantRepository variantRepository;
+    private AlbumCoverRepository coverRepository;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        coverRepository = mock(AlbumCoverRepository.class);
+        variantRepository = mock(AlbumCoverVariantRepository.class);
+        AlbumCover cover = AlbumCover.builder()
+                .id(7L)
+                .album(Album.builder().id(1L).build())
+                .objectName("covers/ab/abc123")
+                .contentType("image/png")
+                .fileSize((long) CONTENT.length)
+                .checksum("abc123")
+                .build();
+        when(coverRepository.findById(7L)).thenReturn(Optional.of(cover));
+        when(variantRepository.findByCoverId(7L)).thenReturn(List.of());
+        when(storageService.downloadFile("covers/ab/abc123")).thenAnswer(inv -> new ByteArrayInputStream(CONTENT));
+        when(storageService.downloadFile(anyString(), anyLong(), anyLong())).thenAnswer(inv -> {
+            int offset = ((Long) inv.getArgument(1)).intValue();
+            int length = ((Long) inv.getArgument(2)).intValue();
+            return new ByteArrayInputStream(CONTENT, offset, length);
+        });
+    }
+
+    private CoverImageService service(boolean diskCache) {
+        CoverDiskCache cache = new CoverDiskCache(storageService, new SimpleMeterRegistry(), diskCache, cacheDir,
+                DataSize.ofMegabytes(1), DataSize.ofMegabytes(1));
+        return new CoverImageService(coverRepository, variantRepository, storageService, cache, new SimpleMeterRegistry());
+    }
+
+    private MockHttpServletResponse get(CoverImageService service, MockHttpServletRequest request, String variant)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.serve(1L, 7L, variant, request, response);
+        return response;
+    }
+
+    @Test
+    void servesWholeImageWithStrongEtagAndImmutableCaching() throws Exception {
+        MockHttpServletResponse response = get(service(false), new MockHttpServletRequest("GET", "/"), "original");
+
+        assertEquals(200, response.getStatus());
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertTrue(response.getHeader("Cache-Control").contains("immutable"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("image/png", response.getContentType());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void answersNotModifiedWithoutTouchingStorage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", ETAG);
+
+        MockHttpServletResponse response = get(service(false), request, "original");
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentLength());
+        verify(storageService, never()).downloadFile(anyString());
+    }
+
+    @Test
+    void servesSingleByteRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-4");
+
+        MockHttpServletResponse response = get(service(false), request, "original");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader("Content-Range"));
+        assertEquals("234", response.getContentAsString());
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=2-4");
+        request.addHeader("If-Range", "\"outro\"");
+
+        MockHttpServletResponse response = get(service(false), request, "original");
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("Range", "bytes=20-30");
+
+        MockHttpServletResponse response = get(service(false), request, "original");
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void fallsBackToOriginalWithShortCachingWhileVariantIsMissing() throws Exception {
+        MockHttpServletResponse response = get(service(false), new MockHttpServletRequest("GET", "/"), "256");
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getHeader("Cache-Control").contains("max-age=60"));
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void variantHasItsOwnEtag() throws Exception {
+        when(variantRepository.findByCoverId(7L)).thenReturn(List.of(AlbumCoverVariant.builder()
+                .coverId(7L).variant("256").objectName("covers/ab/abc123_256.png")
+                .contentType("image/png").fileSize(3L).build()));
+        when(storageService.downloadFile("covers/ab/abc123_256.png"))
+                .thenAnswer(inv -> new ByteArrayInputStream("xyz".getBytes(StandardCharsets.US_ASCII)));
+
+        MockHttpServletResponse response = get(service(false), new MockHttpServletRequest("GET", "/"), "256");
+
+        assertEquals("\"abc123-256\"", response.getHeader("ETag"));
+        assertEquals("xyz", response.getContentAsString());
+    }
+
+    @Test
+    void diskCacheKeepsRepeatedReadsOutOfStorage() throws Exception {
+        CoverImageService service = service(true);
+
+        get(service, new MockHttpServletRequest("GET", "/"), "original");
+        MockHttpServletRequest range = new MockHttpServletRequest("GET", "/");
+        range.addHeader("Range", "bytes=-3");
+        MockHttpServletResponse response = get(service, range, "original");
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+        verify(storageService, times(1)).downloadFile("covers/ab/abc123");
+        verify(storageService, never()).downloadFile(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void coverWithoutChecksumIsRevalidatedAgainstStorageEtag() throws Exception {
+        when(coverRepository.findById(7L)).thenReturn(Optional.of(AlbumCover.builder()
+                .id(7L)
+                .album(Album.builder().id(1L).build())
+                .objectName("albums/1/antiga.png")
+                .contentType("image/png")
+                .build()));
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn((long) CONTENT.length);
+        when(stat.etag()).thenReturn("md5atual");
+        when(storageService.statFile("albums/1/antiga.png")).thenReturn(Optional.of(stat));
+        when(storageService.downloadFile("albums/1/antiga.png")).thenAnswer(inv -> new ByteArrayInputStream(CONTENT));
+        CoverImageService service = service(true);
+
+        MockHttpServletResponse response = get(service, new MockHttpServletRequest("GET", "/"), "original");
+        get(service, new MockHttpServletRequest("GET", "/"), "original");
+
+        // Objeto pode ter sido regravado: validador fraco do storage, sem immutable e fora do cache em disco
+        assertEquals("W/\"md5atual\"", response.getHeader("ETag"));
+        assertFalse(response.getHeader("Cache-Control").contains("immutable"));
+        assertEquals("0123456789", response.getContentAsString());
+        verify(storageService, times(2)).downloadFile("albums/1/antiga.png");
+    }
+}
@@ -0,0 +1,70 @@
+package com.seplag.music.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoverSpoolTest {
+
+    @Test
+    void keepsSmallUploadsInMemory() throws IOException {
+        byte[] data = randomBytes(1000);
+        try (CoverSpool spool = CoverSpool.copyOf(new ByteArrayInputStream(data), 4096)) {
+            assertEquals(1000, spool.size());
+            assertArrayEquals(data, readAll(spool));
+            assertArrayEquals(data, readAll(spool));
+        }
+    }
+
+    @Test
+    void spillsLargeUploadsToTempFileAndDeletesOnClose() throws IOException {
+        byte[] data = randomBytes(50_000);
+        long before = countTempFiles();
+        CoverSpool spool = CoverSpool.copyOf(new ByteArrayInputStream(data), 4096);
+        assertEquals(before + 1, countTempFiles());
+        assertEquals(50_000, spool.size());
+        assertArrayEquals(data, readAll(spool));
+
+        spool.close();
+        assertEquals(before, countTempFiles());
+    }
+
+    @Test
+    void contentAddressedNamesAreShardedByHashPrefix() {
+        String sha = "ab" + "0".repeat(62);
+        String name = ContentAddressedCoverStore.objectName(sha);
+        assertEquals("covers/ab/" + sha, name);
+        assertTrue(ContentAddressedCoverStore.isContentAddressed(name));
+        assertFalse(ContentAddressedCoverStore.isContentAddressed("albums/1/capa.jpg"));
+    }
+
+    private static byte[] readAll(CoverSpool spool) throws IOException {
+        try (InputStream in = spool.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(p -> p.getFileName().toString().startsWith("cover-")
+                    && p.getFileName().toString().endsWith(".upload")).count();
+        }
+    }
+}
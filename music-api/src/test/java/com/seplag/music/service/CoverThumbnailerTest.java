@@ -0,0 +1,56 @@
+package com.seplag.music.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoverThumbnailerTest {
+
+    @Test
+    void resizesKeepingAspectRatio() {
+        BufferedImage source = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage resized = CoverThumbnailer.resize(source, 256);
+
+        assertEquals(256, resized.getWidth());
+        assertEquals(171, resized.getHeight());
+    }
+
+    @Test
+    void encodesOpaqueAsJpegAndTransparentAsPng() throws IOException {
+        byte[] jpeg = CoverThumbnailer.encode(new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB));
+        byte[] png = CoverThumbnailer.encode(new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB));
+
+        assertEquals(0xFF, jpeg[0] & 0xFF);
+        assertEquals(0xD8, jpeg[1] & 0xFF);
+        assertEquals('P', png[1]);
+    }
+
+    @Test
+    void refusesImagesAbovePixelLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        assertThrows(IOException.class,
+                () -> CoverThumbnailer.read(new ByteArrayInputStream(out.toByteArray()), 10_000));
+    }
+
+    @Test
+    void returnsNullForUnknownFormat() throws IOException {
+        assertNull(CoverThumbnailer.read(new ByteArrayInputStream("não é imagem".getBytes()), 10_000));
+    }
+
+    @Test
+    void derivesVariantNameNextToOriginal() {
+        assertEquals("albums/1/abc_256.jpg", CoverDerivativeService.derivedObjectName("albums/1/abc.png", 256, "jpg"));
+        assertEquals("albums/1/abc_64.png", CoverDerivativeService.derivedObjectName("albums/1/abc", 64, "png"));
+    }
+}
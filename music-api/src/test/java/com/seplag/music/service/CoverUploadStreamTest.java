@@ -0,0 +1,51 @@
+package com.seplag.music.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoverUploadStreamTest {
+
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D};
+
+    @Test
+    void computesSizeAndChecksumWhileReading() throws IOException {
+        CoverUploadStream stream = new CoverUploadStream(new ByteArrayInputStream(PNG_HEADER), 1024);
+
+        stream.readAllBytes();
+
+        assertEquals(PNG_HEADER.length, stream.getSize());
+        assertEquals(64, stream.getChecksum().length());
+    }
+
+    @Test
+    void rejectsWhenLimitIsExceeded() {
+        InputStream body = new ByteArrayInputStream(new byte[2048]);
+        CoverUploadStream stream = new CoverUploadStream(body, 1024);
+
+        assertThrows(CoverUploadStream.RejectedException.class, stream::readAllBytes);
+    }
+
+    @Test
+    void rejectsNonImageSignature() {
+        byte[] text = "isto não é uma imagem".getBytes();
+        CoverUploadStream stream = new CoverUploadStream(new ByteArrayInputStream(text), 1024);
+
+        assertThrows(CoverUploadStream.RejectedException.class, stream::readAllBytes);
+    }
+
+    @Test
+    void verifiesShortBodyNotReadToEnd() throws IOException {
+        CoverUploadStream stream = new CoverUploadStream(new ByteArrayInputStream(new byte[]{'B', 'M', 1, 2}), 1024);
+
+        stream.read(new byte[4], 0, 4);
+
+        stream.verifyComplete();
+        assertEquals(4, stream.getSize());
+    }
+}
@@ -0,0 +1,84 @@
+package com.seplag.music.service;
+
+import com.seplag.music.config.StorageCircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CoverUrlResolverTest {
+
+    private StorageService storageService;
+    private StorageCircuitBreaker circuitBreaker;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        circuitBreaker = new StorageCircuitBreaker(1, Duration.ofMinutes(1));
+        when(storageService.getPublicUrl(anyString())).thenAnswer(inv -> "public/" + inv.getArgument(0));
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void usesCachedUrlWithoutSigning() {
+        when(storageService.getCachedPresignedUrl("a")).thenReturn("cached/a");
+        CoverUrlResolver resolver = new CoverUrlResolver(storageService, circuitBreaker, executor, Duration.ofSeconds(1));
+
+        assertEquals(Map.of("a", "cached/a"), resolver.resolveAll(List.of("a")));
+        verify(storageService, never()).getPresignedUrl(anyString());
+    }
+
+    @Test
+    void signsMissingUrlsInParallel() {
+        when(storageService.getPresignedUrl(anyString())).thenAnswer(inv -> "signed/" + inv.getArgument(0));
+        CoverUrlResolver resolver = new CoverUrlResolver(storageService, circuitBreaker, executor, Duration.ofSeconds(1));
+
+        Map<String, String> urls = resolver.resolveAll(List.of("a", "b", "a"));
+
+        assertEquals(Map.of("a", "signed/a", "b", "signed/b"), urls);
+    }
+
+    @Test
+    void degradesToPublicUrlOnDeadlineOrFailure() {
+        when(storageService.getPresignedUrl("slow")).thenAnswer(inv -> {
+            Thread.sleep(500);
+            return "signed/slow";
+        });
+        when(storageService.getPresignedUrl("broken")).thenThrow(new RuntimeException("minio down"));
+        CoverUrlResolver resolver = new CoverUrlResolver(storageService, circuitBreaker, executor, Duration.ofMillis(50));
+
+        Map<String, String> urls = resolver.resolveAll(List.of("slow", "broken"));
+
+        assertEquals("public/slow", urls.get("slow"));
+        assertEquals("public/broken", urls.get("broken"));
+    }
+
+    @Test
+    void skipsSigningWhileCircuitIsOpen() {
+        when(storageService.getCachedPresignedUrl("a")).thenReturn("cached/a");
+        circuitBreaker.recordFailure();
+        CoverUrlResolver resolver = new CoverUrlResolver(storageService, circuitBreaker, executor, Duration.ofSeconds(1));
+
+        assertEquals(Map.of("a", "cached/a", "b", "public/b"), resolver.resolveAll(List.of("a", "b")));
+        verify(storageService, never()).getPresignedUrl(anyString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.seplag.music.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PresignedUrlCacheTest {
+
+    @Test
+    void reusesUrlWhileInsideRefreshWindow() {
+        PresignedUrlCache cache = new PresignedUrlCache(10, 0.5);
+        AtomicInteger signatures = new AtomicInteger();
+
+        String first = cache.get("albums/1/a.jpg", 3600, () -> "url-" + signatures.incrementAndGet());
+        String second = cache.get("albums/1/a.jpg", 3600, () -> "url-" + signatures.incrementAndGet());
+
+        assertEquals(first, second);
+        assertEquals(1, signatures.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void resignsWhenExpiryDiffers() {
+        PresignedUrlCache cache = new PresignedUrlCache(10, 0.5);
+        AtomicInteger signatures = new AtomicInteger();
+
+        String week = cache.get("albums/1/a.jpg", 604800, () -> "url-" + signatures.incrementAndGet());
+        String hour = cache.get("albums/1/a.jpg", 3600, () -> "url-" + signatures.incrementAndGet());
+
+        assertNotEquals(week, hour);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void resignsAfterRefreshWindowElapsed() {
+        PresignedUrlCache cache = new PresignedUrlCache(10, 0.5);
+        AtomicInteger signatures = new AtomicInteger();
+
+        // expiry 0 → janela de reuso vazia
+        cache.get("albums/1/a.jpg", 0, () -> "url-" + signatures.incrementAndGet());
+        cache.get("albums/1/a.jpg", 0, () -> "url-" + signatures.incrementAndGet());
+
+        assertEquals(2, signatures.get());
+    }
+
+    @Test
+    void evictRemovesAllExpiriesOfObject() {
+        PresignedUrlCache cache = new PresignedUrlCache(10, 0.5);
+        cache.get("albums/1/a.jpg", 3600, () -> "a");
+        cache.get("albums/1/a.jpg", 7200, () -> "b");
+        cache.get("albums/1/b.jpg", 3600, () -> "c");
+
+        cache.evict("albums/1/a.jpg");
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void boundedByMaxSize() {
+        PresignedUrlCache cache = new PresignedUrlCache(2, 0.5);
+        cache.get("a", 3600, () -> "a");
+        cache.get("b", 3600, () -> "b");
+        cache.get("c", 3600, () -> "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+}
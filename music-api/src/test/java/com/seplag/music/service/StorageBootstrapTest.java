@@ -0,0 +1,127 @@
+package com.seplag.music.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.GetBucketLifecycleArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.SetBucketLifecycleArgs;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.AbortIncompleteMultipartUpload;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Expiration;
+import io.minio.messages.LifecycleConfiguration;
+import io.minio.messages.LifecycleRule;
+import io.minio.messages.RuleFilter;
+import io.minio.messages.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageBootstrapTest {
+
+    private MinioClient minioClient;
+    private StorageBootstrap bootstrap;
+
+    @BeforeEach
+    void setUp() {
+        minioClient = mock(MinioClient.class);
+        bootstrap = new StorageBootstrap(minioClient, new SimpleMeterRegistry(), "albums", "unchanged",
+                Duration.ofDays(1), Duration.ZERO);
+    }
+
+    @Test
+    void checksBucketOnlyOnce() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(false);
+
+        bootstrap.initialize();
+        bootstrap.ensureReady();
+        bootstrap.ensureReady();
+
+        verify(minioClient, times(1)).bucketExists(any(BucketExistsArgs.class));
+        verify(minioClient, times(1)).makeBucket(any(MakeBucketArgs.class));
+        verify(minioClient, times(1)).setBucketLifecycle(any(SetBucketLifecycleArgs.class));
+        assertTrue(bootstrap.isReady());
+    }
+
+    @Test
+    void retriesOnFirstUploadWhenStartupCheckFailed() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class)))
+                .thenThrow(new IOException("connection refused"))
+                .thenReturn(true);
+
+        bootstrap.initialize();
+        assertFalse(bootstrap.isReady());
+
+        bootstrap.ensureReady();
+        assertTrue(bootstrap.isReady());
+        verify(minioClient, never()).makeBucket(any(MakeBucketArgs.class));
+    }
+
+    @Test
+    void rechecksOnlyOnNoSuchBucket() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true, false);
+        bootstrap.ensureReady();
+
+        assertFalse(bootstrap.recoverIfBucketMissing(error("AccessDenied")));
+        assertTrue(bootstrap.recoverIfBucketMissing(error("NoSuchBucket")));
+
+        verify(minioClient, times(2)).bucketExists(any(BucketExistsArgs.class));
+        verify(minioClient, times(1)).makeBucket(any(MakeBucketArgs.class));
+    }
+
+    @Test
+    void keepsOperatorLifecycleRulesAndReplacesOnlyItsOwn() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(minioClient.getBucketLifecycle(any(GetBucketLifecycleArgs.class)))
+                .thenReturn(new LifecycleConfiguration(List.of(operatorRule(), abortRule(7))));
+
+        bootstrap.ensureReady();
+
+        ArgumentCaptor<SetBucketLifecycleArgs> args = ArgumentCaptor.forClass(SetBucketLifecycleArgs.class);
+        verify(minioClient).setBucketLifecycle(args.capture());
+        List<LifecycleRule> rules = args.getValue().config().rules();
+        assertEquals(List.of("expire-tmp", "abort-incomplete-uploads"), rules.stream().map(LifecycleRule::id).toList());
+        assertEquals(1, rules.get(1).abortIncompleteMultipartUpload().daysAfterInitiation());
+    }
+
+    @Test
+    void leavesLifecycleAloneWhenNothingChanged() throws Exception {
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(minioClient.getBucketLifecycle(any(GetBucketLifecycleArgs.class)))
+                .thenReturn(new LifecycleConfiguration(List.of(abortRule(1), operatorRule())));
+
+        bootstrap.ensureReady();
+
+        verify(minioClient, never()).setBucketLifecycle(any(SetBucketLifecycleArgs.class));
+    }
+
+    private static LifecycleRule operatorRule() {
+        return new LifecycleRule(Status.ENABLED, null, new Expiration((ZonedDateTime) null, 3, null),
+                new RuleFilter("tmp/"), "expire-tmp", null, null, null);
+    }
+
+    private static LifecycleRule abortRule(int days) {
+        return new LifecycleRule(Status.ENABLED, new AbortIncompleteMultipartUpload(days), null,
+                new RuleFilter(""), "abort-incomplete-uploads", null, null, null);
+    }
+
+    private static ErrorResponseException error(String code) {
+        return new ErrorResponseException(new ErrorResponse(code, code, "albums", "x", null, null, null), null, null);
+    }
+}